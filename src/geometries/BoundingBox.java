@@ -0,0 +1,107 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * BoundingBox class represents an axis aligned box in 3D Cartesian coordinate
+ * that bounds a graphic object
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class BoundingBox {
+    /**
+     * marker of graphic objects without spatial extent limit (e.g. plane or tube),
+     * every ray may intersect them
+     */
+    public static final BoundingBox UNBOUNDED = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    final double minX, minY, minZ;
+    final double maxX, maxY, maxZ;
+
+    /**
+     * constructor
+     *
+     * @param minX the minimal x coordinate
+     * @param minY the minimal y coordinate
+     * @param minZ the minimal z coordinate
+     * @param maxX the maximal x coordinate
+     * @param maxY the maximal y coordinate
+     * @param maxZ the maximal z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * constructor of the smallest box that contains all the points
+     *
+     * @param points the points to bound
+     */
+    public BoundingBox(Point... points) {
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x0 = Math.min(x0, p.getX());
+            y0 = Math.min(y0, p.getY());
+            z0 = Math.min(z0, p.getZ());
+            x1 = Math.max(x1, p.getX());
+            y1 = Math.max(y1, p.getY());
+            z1 = Math.max(z1, p.getZ());
+        }
+        minX = x0;
+        minY = y0;
+        minZ = z0;
+        maxX = x1;
+        maxY = y1;
+        maxZ = z1;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+
+    /**
+     * check whether the box is the unbounded marker
+     *
+     * @return true if the box is unbounded, false otherwise
+     */
+    public boolean isUnbounded() {
+        return this == UNBOUNDED;
+    }
+
+    /**
+     * the smallest box that contains both this box and the other box
+     *
+     * @param other the other box
+     * @return the united box
+     */
+    public BoundingBox union(BoundingBox other) {
+        if (isUnbounded() || other.isUnbounded())
+            return UNBOUNDED;
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * check whether a ray{@link Ray} passes through the box in a range of distance
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return true if the ray passes through the box, false otherwise
+     */
+    public boolean isIntersecting(Ray ray, double maxDistance) {
+        return isUnbounded() || ray.isIntersectingBox(minX, minY, minZ, maxX, maxY, maxZ, maxDistance);
+    }
+}
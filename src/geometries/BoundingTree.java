@@ -0,0 +1,878 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static primitives.Util.alignZero;
+
+/**
+ * BoundingTree class is a binary tree of bounding boxes over numbered objects, the core of a bounding volume
+ * hierarchy - the graphic objects of {@link BoundingVolumeHierarchy} and the triangles of {@link TriangleMesh}.
+ * The tree is built over the boxes of the objects by the binned surface area heuristic or by the morton codes
+ * of their centers (see {@link HierarchyBuilder}), and then laid out in primitive arrays in depth first order,
+ * which are traversed with a stack of node indices kept for every thread. A leaf holds a range of the objects in the order
+ * of the leaves, the owner of the tree keeps its objects in that order
+ *
+ * @author Michal Superfine & Evgi
+ */
+class BoundingTree {
+    /**
+     * maximal number of objects in a leaf of the tree - a bigger range is always split
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * number of bins of the surface area heuristic along the split axis
+     */
+    private static final int BINS = 16;
+    /**
+     * the cost of visiting a node and the cost of checking an object, for the surface area heuristic
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+    private static final double INTERSECTION_COST = 1;
+    /**
+     * ranges of more objects than this are built in parallel on the common fork-join pool
+     */
+    private static final int PARALLEL_BUILD_SIZE = 1024;
+    /**
+     * bits of every axis in the morton code of a center - 3 axes of 21 bits make 63 bits
+     */
+    private static final int MORTON_BITS = 21;
+    /**
+     * bits of the digit of every pass of the radix sort of the morton codes
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * the number of objects in the tree
+     */
+    private final int objectCount;
+    /**
+     * the boxes of the nodes - minX, minY, minZ, maxX, maxY, maxZ of every node
+     */
+    private final double[] nodeBounds;
+    /**
+     * the nodes in depth first order - two numbers for every node:
+     * a leaf has its first object and its number of objects,
+     * an inner node has the index of its right child and 0 (its left child is the next node)
+     */
+    private final int[] nodes;
+    private final int nodeCount;
+    /**
+     * the number of levels of the tree, the size of the stack of the traversal
+     */
+    private final int depth;
+
+    /**
+     * search of the objects of a leaf for the closest intersection with a ray
+     */
+    interface LeafSearch {
+        /**
+         * search the objects of a leaf
+         *
+         * @param first       the index of the first object of the leaf in the order of the leaves
+         * @param count       the number of objects of the leaf
+         * @param maxDistance the maximum distance of an intersection (the closest one found so far)
+         * @return the distance of the closest intersection in the leaf,
+         * {@link Double#POSITIVE_INFINITY} if there is none
+         */
+        double search(int first, int count, double maxDistance);
+    }
+
+    /**
+     * visit of the objects of a leaf that a ray passes through
+     */
+    interface LeafVisitor {
+        /**
+         * visit the objects of a leaf
+         *
+         * @param first the index of the first object of the leaf in the order of the leaves
+         * @param count the number of objects of the leaf
+         * @return false to stop the search
+         */
+        boolean visit(int first, int count);
+    }
+
+    /**
+     * the traversal stack of a thread, shared by all the trees - a traversal takes the next free part
+     * of the stack for its levels, and the traversals nested in its leaves (groups and instances)
+     * take the parts after it. The arrays grow for deep nesting, so they are read again after a leaf is visited
+     */
+    private static final class TraversalStack {
+        int[] nodes = new int[64];
+        double[] distances = new double[64];
+        int top = 0;
+
+        /**
+         * take a part of the stack
+         *
+         * @param levels the size of the part
+         * @return the start of the part, the stack is given back by setting the top to it
+         */
+        int take(int levels) {
+            int base = top;
+            top += levels;
+            if (top > nodes.length) {
+                int length = Math.max(top, 2 * nodes.length);
+                nodes = Arrays.copyOf(nodes, length);
+                distances = Arrays.copyOf(distances, length);
+            }
+            return base;
+        }
+    }
+
+    /**
+     * the traversal stack of every thread, so a traversal allocates nothing
+     */
+    private static final ThreadLocal<TraversalStack> TRAVERSAL_STACK = ThreadLocal.withInitial(TraversalStack::new);
+
+    /**
+     * node of the tree while it is built - an inner node has two children,
+     * a leaf has a range of the objects in the order of the leaves
+     */
+    private static class Node {
+        final BoundingBox box;
+        final Node left, right;
+        /**
+         * the range of the objects of the sub tree in the order of the leaves
+         */
+        final int first, count;
+        /**
+         * the number of nodes and the number of levels of the sub tree
+         */
+        final int size, levels;
+
+        Node(BoundingBox box, Node left, Node right) {
+            this.box = box;
+            this.left = left;
+            this.right = right;
+            this.first = left.first;
+            this.count = left.count + right.count;
+            this.size = 1 + left.size + right.size;
+            this.levels = 1 + Math.max(left.levels, right.levels);
+        }
+
+        Node(BoundingBox box, int first, int count) {
+            this.box = box;
+            this.left = null;
+            this.right = null;
+            this.first = first;
+            this.count = count;
+            this.size = 1;
+            this.levels = 1;
+        }
+    }
+
+    /**
+     * constructor - builds the tree over the boxes of the objects
+     *
+     * @param bounds  the bounding boxes of the objects, 6 values per object (3 minimums and 3 maximums)
+     * @param order   filled with the numbers of the objects in the order of the leaves, one for every object
+     * @param builder the way the tree is built
+     */
+    BoundingTree(double[] bounds, int[] order, HierarchyBuilder builder) {
+        objectCount = order.length;
+        if (objectCount == 0) {
+            nodeBounds = new double[0];
+            nodes = new int[0];
+            nodeCount = 0;
+            depth = 0;
+            return;
+        }
+        for (int i = 0; i < objectCount; ++i)
+            order[i] = i;
+        RecursiveTask<Node> task = builder == HierarchyBuilder.LINEAR
+                ? new LinearBuildTask(bounds, order, sortByMortonCodes(bounds, order), 0, objectCount)
+                : new SahBuildTask(bounds, order, 0, objectCount);
+        Node root = objectCount > PARALLEL_BUILD_SIZE ? ForkJoinPool.commonPool().invoke(task) : task.invoke();
+
+        nodeCount = root.size;
+        depth = root.levels;
+        nodeBounds = new double[6 * nodeCount];
+        nodes = new int[2 * nodeCount];
+        flatten(root, 0);
+    }
+
+    /**
+     * lay out a sub tree in the arrays in depth first order - the node is followed by its left sub tree
+     * and then by its right sub tree
+     *
+     * @param node  the root of the sub tree
+     * @param index the index of the node
+     * @return the index after the last node of the sub tree
+     */
+    private int flatten(Node node, int index) {
+        BoundingBox box = node.box;
+        nodeBounds[6 * index] = box.minX;
+        nodeBounds[6 * index + 1] = box.minY;
+        nodeBounds[6 * index + 2] = box.minZ;
+        nodeBounds[6 * index + 3] = box.maxX;
+        nodeBounds[6 * index + 4] = box.maxY;
+        nodeBounds[6 * index + 5] = box.maxZ;
+        if (node.left == null) {
+            nodes[2 * index] = node.first;
+            nodes[2 * index + 1] = node.count;
+            return index + 1;
+        }
+        int right = flatten(node.left, index + 1);
+        nodes[2 * index] = right;
+        nodes[2 * index + 1] = 0;
+        return flatten(node.right, right);
+    }
+
+    /**
+     * task of building a sub tree over a range of the objects - the range is split by the
+     * surface area heuristic, and the sub trees of big ranges are built in parallel
+     */
+    private static class SahBuildTask extends RecursiveTask<Node> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final double[] bounds;
+        private final int[] order;
+        private final int from, to;
+
+        /**
+         * constructor
+         *
+         * @param bounds the bounding boxes of the objects, 6 values per object
+         * @param order  the order of the objects, the range is reordered by the split
+         * @param from   first index of the range in the order (included)
+         * @param to     last index of the range in the order (excluded)
+         */
+        SahBuildTask(double[] bounds, int[] order, int from, int to) {
+            this.bounds = bounds;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            // the box of the range, and the box of the centers of the objects
+            double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+            double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+            double[] centers = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (int i = from; i < to; ++i) {
+                int b = 6 * order[i];
+                x0 = Math.min(x0, bounds[b]);
+                y0 = Math.min(y0, bounds[b + 1]);
+                z0 = Math.min(z0, bounds[b + 2]);
+                x1 = Math.max(x1, bounds[b + 3]);
+                y1 = Math.max(y1, bounds[b + 4]);
+                z1 = Math.max(z1, bounds[b + 5]);
+                for (int axis = 0; axis < 3; ++axis) {
+                    double center = bounds[b + axis] + bounds[b + axis + 3];
+                    centers[axis] = Math.min(centers[axis], center);
+                    centers[axis + 3] = Math.max(centers[axis + 3], center);
+                }
+            }
+            BoundingBox box = new BoundingBox(x0, y0, z0, x1, y1, z1);
+            int count = to - from;
+            if (count == 1)
+                return new Node(box, from, 1);
+
+            int split = findSplit(centers, surfaceArea(x0, y0, z0, x1, y1, z1));
+            if (split < 0) {
+                if (count <= MAX_LEAF_SIZE)
+                    return new Node(box, from, count);
+                // no split separates the objects (e.g. they have the same center) - split the range in the middle
+                split = (from + to) / 2;
+            }
+
+            SahBuildTask leftTask = new SahBuildTask(bounds, order, from, split);
+            SahBuildTask rightTask = new SahBuildTask(bounds, order, split, to);
+            if (count <= PARALLEL_BUILD_SIZE)
+                return new Node(box, leftTask.compute(), rightTask.compute());
+            leftTask.fork();
+            Node right = rightTask.compute();
+            return new Node(box, leftTask.join(), right);
+        }
+
+        /**
+         * find the cheapest split of the range by the surface area heuristic - the centers of the objects
+         * are put in bins along the longest axis of their box, and the range is split between two bins
+         * where the expected cost of the two children is the lowest. The range is reordered by the split
+         *
+         * @param centers the box of the centers of the objects (twice the centers), 3 minimums and 3 maximums
+         * @param area    the surface area of the box of the range
+         * @return the index of the first object of the right child, -1 if the range should be a leaf
+         * (when the objects can't be split, or a small range is cheaper than its split)
+         */
+        private int findSplit(double[] centers, double area) {
+            int axis = 0;
+            for (int a = 1; a < 3; ++a)
+                if (centers[a + 3] - centers[a] > centers[axis + 3] - centers[axis])
+                    axis = a;
+            double min = centers[axis], extent = centers[axis + 3] - min;
+            if (extent <= 0 || area <= 0)
+                return -1;
+
+            // the number of objects and the box of every bin
+            int[] binCounts = new int[BINS];
+            double[] binBounds = new double[6 * BINS];
+            for (int bin = 0; bin < BINS; ++bin)
+                for (int c = 0; c < 3; ++c) {
+                    binBounds[6 * bin + c] = Double.POSITIVE_INFINITY;
+                    binBounds[6 * bin + c + 3] = Double.NEGATIVE_INFINITY;
+                }
+            for (int i = from; i < to; ++i) {
+                int b = 6 * order[i];
+                int bin = findBin(bounds[b + axis] + bounds[b + axis + 3], min, extent);
+                ++binCounts[bin];
+                for (int c = 0; c < 3; ++c) {
+                    binBounds[6 * bin + c] = Math.min(binBounds[6 * bin + c], bounds[b + c]);
+                    binBounds[6 * bin + c + 3] = Math.max(binBounds[6 * bin + c + 3], bounds[b + c + 3]);
+                }
+            }
+
+            // sweep from the left to find the areas and counts of the left sides of the splits
+            double[] leftCosts = new double[BINS - 1];
+            int[] leftCounts = new int[BINS - 1];
+            double[] sweep = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            int sweepCount = 0;
+            for (int bin = 0; bin < BINS - 1; ++bin) {
+                sweepCount += binCounts[bin];
+                uniteBin(sweep, binBounds, bin);
+                leftCounts[bin] = sweepCount;
+                leftCosts[bin] = sweepCount == 0 ? 0 : sweepCount * surfaceArea(sweep);
+            }
+
+            // sweep from the right and find the cheapest split - the split after bin is between bin and bin + 1
+            int bestBin = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+            sweep = new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            sweepCount = 0;
+            for (int bin = BINS - 1; bin > 0; --bin) {
+                sweepCount += binCounts[bin];
+                uniteBin(sweep, binBounds, bin);
+                if (sweepCount == 0 || leftCounts[bin - 1] == 0)
+                    continue;
+                double cost = TRAVERSAL_COST
+                        + INTERSECTION_COST * (leftCosts[bin - 1] + sweepCount * surfaceArea(sweep)) / area;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestBin = bin - 1;
+                }
+            }
+            if (bestBin < 0 || to - from <= MAX_LEAF_SIZE && bestCost >= INTERSECTION_COST * (to - from))
+                return -1;
+
+            // move the objects of the bins up to the best bin to the beginning of the range
+            int split = from;
+            for (int i = from; i < to; ++i) {
+                int b = 6 * order[i];
+                if (findBin(bounds[b + axis] + bounds[b + axis + 3], min, extent) <= bestBin) {
+                    int swap = order[i];
+                    order[i] = order[split];
+                    order[split++] = swap;
+                }
+            }
+            return split;
+        }
+
+        /**
+         * find the bin of a center
+         *
+         * @param center the center (twice the center) on the axis of the bins
+         * @param min    the minimal center on the axis
+         * @param extent the extent of the centers on the axis
+         * @return the bin
+         */
+        private static int findBin(double center, double min, double extent) {
+            return Math.min(BINS - 1, (int) (BINS * (center - min) / extent));
+        }
+
+        /**
+         * unite the box of a bin into a box
+         *
+         * @param box       the box, 3 minimums and 3 maximums
+         * @param binBounds the boxes of the bins
+         * @param bin       the bin
+         */
+        private static void uniteBin(double[] box, double[] binBounds, int bin) {
+            for (int c = 0; c < 3; ++c) {
+                box[c] = Math.min(box[c], binBounds[6 * bin + c]);
+                box[c + 3] = Math.max(box[c + 3], binBounds[6 * bin + c + 3]);
+            }
+        }
+    }
+
+    /**
+     * sort the objects by the morton codes of their centers - the centers are scaled to a grid
+     * of 2^21 cells on every axis of the box of the centers, and the bits of the 3 cell coordinates are
+     * interleaved, so objects that are close in space are close in the order. The codes are sorted by
+     * a radix sort, every pass counts and moves the chunks of the codes in parallel
+     *
+     * @param bounds the bounding boxes of the objects, 6 values per object
+     * @param order  the order of the objects, sorted by the codes
+     * @return the sorted morton codes
+     */
+    private static long[] sortByMortonCodes(double[] bounds, int[] order) {
+        int n = order.length;
+        // the box of the centers (twice the centers), 3 minimums and 3 maximums
+        double[] centers = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < n; ++i)
+            for (int axis = 0; axis < 3; ++axis) {
+                double center = bounds[6 * i + axis] + bounds[6 * i + axis + 3];
+                centers[axis] = Math.min(centers[axis], center);
+                centers[axis + 3] = Math.max(centers[axis + 3], center);
+            }
+
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), n / PARALLEL_BUILD_SIZE));
+        int chunkSize = (n + chunks - 1) / chunks;
+        long[] codes = new long[n];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); ++i) {
+                long code = 0;
+                for (int axis = 0; axis < 3; ++axis) {
+                    double extent = centers[axis + 3] - centers[axis];
+                    double center = bounds[6 * i + axis] + bounds[6 * i + axis + 3];
+                    long cell = extent <= 0 ? 0
+                            : Math.min((1L << MORTON_BITS) - 1, (long) ((center - centers[axis]) / extent * (1L << MORTON_BITS)));
+                    code |= spreadBits(cell) << (2 - axis);
+                }
+                codes[i] = code;
+            }
+        });
+
+        // least significant digit first, every pass is stable - the chunks keep their order in every digit
+        int digits = 1 << RADIX_BITS;
+        int[][] offsets = new int[chunks][digits];
+        long[] source = codes, target = new long[n];
+        int[] sourceOrder = order, targetOrder = new int[n];
+        for (int shift = 0; shift < 3 * MORTON_BITS; shift += RADIX_BITS) {
+            long[] from = source, to = target;
+            int[] fromOrder = sourceOrder, toOrder = targetOrder;
+            int digitShift = shift;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                Arrays.fill(offsets[chunk], 0);
+                for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); ++i)
+                    ++offsets[chunk][(int) (from[i] >>> digitShift) & (digits - 1)];
+            });
+            // turn the counts into the first index of every chunk in every digit
+            int total = 0;
+            boolean sorted = false;
+            for (int digit = 0; digit < digits; ++digit) {
+                int digitCount = 0;
+                for (int chunk = 0; chunk < chunks; ++chunk) {
+                    int count = offsets[chunk][digit];
+                    offsets[chunk][digit] = total;
+                    total += count;
+                    digitCount += count;
+                }
+                // all the codes have the same digit, the pass changes nothing
+                sorted |= digitCount == n;
+            }
+            if (sorted)
+                continue;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); ++i) {
+                    int index = offsets[chunk][(int) (from[i] >>> digitShift) & (digits - 1)]++;
+                    to[index] = from[i];
+                    toOrder[index] = fromOrder[i];
+                }
+            });
+            source = to;
+            target = from;
+            sourceOrder = toOrder;
+            targetOrder = fromOrder;
+        }
+        if (sourceOrder != order)
+            System.arraycopy(sourceOrder, 0, order, 0, n);
+        return source;
+    }
+
+    /**
+     * spread the 21 low bits of a number to every third bit, for the interleaving of a morton code
+     *
+     * @param x the number
+     * @return the spread bits
+     */
+    private static long spreadBits(long x) {
+        x &= 0x1fffffL;
+        x = (x | x << 32) & 0x1f00000000ffffL;
+        x = (x | x << 16) & 0x1f0000ff0000ffL;
+        x = (x | x << 8) & 0x100f00f00f00f00fL;
+        x = (x | x << 4) & 0x10c30c30c30c30c3L;
+        x = (x | x << 2) & 0x1249249249249249L;
+        return x;
+    }
+
+    /**
+     * task of building a sub tree over a range of the objects sorted by their morton codes -
+     * the range is split where the highest bit that differs in its codes changes, so the sub trees
+     * are the cells of an octree on the centers. The sub trees of big ranges are built in parallel,
+     * and the boxes of the nodes are united from the boxes of their children
+     */
+    private static class LinearBuildTask extends RecursiveTask<Node> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final double[] bounds;
+        private final int[] order;
+        private final long[] codes;
+        private final int from, to;
+
+        /**
+         * constructor
+         *
+         * @param bounds the bounding boxes of the objects, 6 values per object
+         * @param order  the order of the objects, sorted by the codes
+         * @param codes  the sorted morton codes
+         * @param from   first index of the range in the order (included)
+         * @param to     last index of the range in the order (excluded)
+         */
+        LinearBuildTask(double[] bounds, int[] order, long[] codes, int from, int to) {
+            this.bounds = bounds;
+            this.order = order;
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            if (to - from == 1) {
+                int b = 6 * order[from];
+                return new Node(new BoundingBox(bounds[b], bounds[b + 1], bounds[b + 2],
+                        bounds[b + 3], bounds[b + 4], bounds[b + 5]), from, 1);
+            }
+            int split = findSplit();
+            LinearBuildTask leftTask = new LinearBuildTask(bounds, order, codes, from, split);
+            LinearBuildTask rightTask = new LinearBuildTask(bounds, order, codes, split, to);
+            Node left, right;
+            if (to - from <= PARALLEL_BUILD_SIZE) {
+                left = leftTask.compute();
+                right = rightTask.compute();
+            } else {
+                leftTask.fork();
+                right = rightTask.compute();
+                left = leftTask.join();
+            }
+            return new Node(left.box.union(right.box), left, right);
+        }
+
+        /**
+         * find the split of the range - the first code in which the highest bit that differs
+         * between the first and the last codes is set (a binary search, the codes are sorted)
+         *
+         * @return the index of the first object of the right child
+         */
+        private int findSplit() {
+            long first = codes[from];
+            long last = codes[to - 1];
+            // objects with the same code are split in the middle
+            if (first == last)
+                return (from + to) / 2;
+            int prefix = Long.numberOfLeadingZeros(first ^ last);
+            // the last code that shares more than the prefix with the first code
+            int split = from;
+            int step = to - 1 - from;
+            do {
+                step = (step + 1) / 2;
+                int next = split + step;
+                if (next < to - 1 && Long.numberOfLeadingZeros(first ^ codes[next]) > prefix)
+                    split = next;
+            } while (step > 1);
+            return split + 1;
+        }
+    }
+
+    /**
+     * the surface area of a box
+     *
+     * @param box the box, 3 minimums and 3 maximums
+     * @return the surface area
+     */
+    private static double surfaceArea(double[] box) {
+        return surfaceArea(box[0], box[1], box[2], box[3], box[4], box[5]);
+    }
+
+    /**
+     * the surface area of a box
+     *
+     * @return the surface area
+     */
+    private static double surfaceArea(double x0, double y0, double z0, double x1, double y1, double z1) {
+        double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * getter for the box of the root of the tree
+     *
+     * @return the bounding box of all the objects, {@link BoundingBox#UNBOUNDED} for an empty tree
+     */
+    BoundingBox getBoundingBox() {
+        if (nodeCount == 0)
+            return BoundingBox.UNBOUNDED;
+        return new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    /**
+     * update the boxes of the tree to the current boxes of the objects, keeping the structure of the tree -
+     * the nodes are visited in reverse depth first order, so the children of a node are updated before it
+     *
+     * @param boxes the current box of an object by its index in the order of the leaves
+     * @return false if one of the objects became unbounded - the tree must be built again
+     */
+    boolean refit(IntFunction<BoundingBox> boxes) {
+        for (int node = nodeCount - 1; node >= 0; --node) {
+            double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+            double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+            int count = nodes[2 * node + 1];
+            if (count > 0) {
+                int first = nodes[2 * node];
+                for (int i = first; i < first + count; ++i) {
+                    BoundingBox box = boxes.apply(i);
+                    if (box.isUnbounded())
+                        return false;
+                    x0 = Math.min(x0, box.minX);
+                    y0 = Math.min(y0, box.minY);
+                    z0 = Math.min(z0, box.minZ);
+                    x1 = Math.max(x1, box.maxX);
+                    y1 = Math.max(y1, box.maxY);
+                    z1 = Math.max(z1, box.maxZ);
+                }
+            } else {
+                int left = 6 * (node + 1), right = 6 * nodes[2 * node];
+                x0 = Math.min(nodeBounds[left], nodeBounds[right]);
+                y0 = Math.min(nodeBounds[left + 1], nodeBounds[right + 1]);
+                z0 = Math.min(nodeBounds[left + 2], nodeBounds[right + 2]);
+                x1 = Math.max(nodeBounds[left + 3], nodeBounds[right + 3]);
+                y1 = Math.max(nodeBounds[left + 4], nodeBounds[right + 4]);
+                z1 = Math.max(nodeBounds[left + 5], nodeBounds[right + 5]);
+            }
+            int b = 6 * node;
+            nodeBounds[b] = x0;
+            nodeBounds[b + 1] = y0;
+            nodeBounds[b + 2] = z0;
+            nodeBounds[b + 3] = x1;
+            nodeBounds[b + 4] = y1;
+            nodeBounds[b + 5] = z1;
+        }
+        return true;
+    }
+
+    /**
+     * create the statistics of the tree
+     *
+     * @param buildTime the build time in nanoseconds
+     * @return the statistics
+     */
+    HierarchyStatistics createStatistics(long buildTime) {
+        int leafCount = 0;
+        for (int node = 0; node < nodeCount; ++node)
+            if (nodes[2 * node + 1] > 0)
+                ++leafCount;
+        return new HierarchyStatistics(buildTime, objectCount, nodeCount, leafCount, depth, findTraversalCost());
+    }
+
+    /**
+     * calculate the expected cost of a ray through the tree by the surface area heuristic -
+     * the visits of the inner nodes and the checks of the objects in the leaves,
+     * weighted by the ratio of the surface area of the node to the surface area of the root
+     *
+     * @return the expected cost, 0 for an empty tree
+     */
+    private double findTraversalCost() {
+        if (nodeCount == 0)
+            return 0;
+        double rootArea = surfaceArea(0);
+        if (rootArea <= 0)
+            rootArea = 1;
+        double cost = 0;
+        for (int node = 0; node < nodeCount; ++node) {
+            int count = nodes[2 * node + 1];
+            cost += surfaceArea(node) / rootArea * (count > 0 ? INTERSECTION_COST * count : TRAVERSAL_COST);
+        }
+        return cost;
+    }
+
+    /**
+     * the surface area of the box of a node
+     *
+     * @param node the node
+     * @return the surface area
+     */
+    private double surfaceArea(int node) {
+        int i = 6 * node;
+        return surfaceArea(nodeBounds[i], nodeBounds[i + 1], nodeBounds[i + 2],
+                nodeBounds[i + 3], nodeBounds[i + 4], nodeBounds[i + 5]);
+    }
+
+    /**
+     * the distance in which a ray enters the box of a node
+     *
+     * @param node        the node
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the distance, {@link Double#POSITIVE_INFINITY} if the ray doesn't pass through the box
+     */
+    private double findNodeEntryDistance(int node, Ray ray, double maxDistance) {
+        int i = 6 * node;
+        return ray.findBoxEntryDistance(nodeBounds[i], nodeBounds[i + 1], nodeBounds[i + 2],
+                nodeBounds[i + 3], nodeBounds[i + 4], nodeBounds[i + 5], maxDistance);
+    }
+
+    /**
+     * visit the leaves that a ray passes through in a range of distance, in depth first order
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @param visitor     the visit of the objects of every leaf
+     * @return false if the visitor stopped the search
+     */
+    boolean visitLeaves(Ray ray, double maxDistance, LeafVisitor visitor) {
+        if (nodeCount == 0)
+            return true;
+
+        // the right children that are left to visit
+        TraversalStack stack = TRAVERSAL_STACK.get();
+        int base = stack.take(depth), size = base;
+        try {
+            int node = 0;
+            while (true) {
+                if (findNodeEntryDistance(node, ray, maxDistance) != Double.POSITIVE_INFINITY) {
+                    int count = nodes[2 * node + 1];
+                    if (count == 0) {
+                        stack.nodes[size++] = nodes[2 * node];
+                        ++node;
+                        continue;
+                    }
+                    if (!visitor.visit(nodes[2 * node], count))
+                        return false;
+                }
+                if (size == base)
+                    return true;
+                node = stack.nodes[--size];
+            }
+        } finally {
+            stack.top = base;
+        }
+    }
+
+    /**
+     * visit the leaves whose boxes hold a point, in depth first order
+     *
+     * @param x       the first coordinate of the point
+     * @param y       the second coordinate of the point
+     * @param z       the third coordinate of the point
+     * @param visitor the visit of the objects of every leaf
+     * @return false if the visitor stopped the search
+     */
+    boolean visitLeaves(double x, double y, double z, LeafVisitor visitor) {
+        if (nodeCount == 0)
+            return true;
+
+        // the right children that are left to visit
+        TraversalStack stack = TRAVERSAL_STACK.get();
+        int base = stack.take(depth), size = base;
+        try {
+            int node = 0;
+            while (true) {
+                if (isInNode(node, x, y, z)) {
+                    int count = nodes[2 * node + 1];
+                    if (count == 0) {
+                        stack.nodes[size++] = nodes[2 * node];
+                        ++node;
+                        continue;
+                    }
+                    if (!visitor.visit(nodes[2 * node], count))
+                        return false;
+                }
+                if (size == base)
+                    return true;
+                node = stack.nodes[--size];
+            }
+        } finally {
+            stack.top = base;
+        }
+    }
+
+    /**
+     * check whether a point is in the box of a node (or on its border)
+     *
+     * @param node the node
+     * @param x    the first coordinate of the point
+     * @param y    the second coordinate of the point
+     * @param z    the third coordinate of the point
+     * @return true if the point is in the box
+     */
+    private boolean isInNode(int node, double x, double y, double z) {
+        int i = 6 * node;
+        return alignZero(nodeBounds[i] - x) <= 0 && alignZero(x - nodeBounds[i + 3]) <= 0
+                && alignZero(nodeBounds[i + 1] - y) <= 0 && alignZero(y - nodeBounds[i + 4]) <= 0
+                && alignZero(nodeBounds[i + 2] - z) <= 0 && alignZero(z - nodeBounds[i + 5]) <= 0;
+    }
+
+    /**
+     * find the distance of the closest intersection of a ray with the objects in a range of distance,
+     * the range shrinks to the closest intersection found so far. The child that the ray enters first is searched
+     * first, and the other one only if it starts before the closest intersection found until it is taken out
+     * of the stack
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @param search      the search of the objects of every leaf
+     * @return the distance of the closest intersection, {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    double findClosest(Ray ray, double maxDistance, LeafSearch search) {
+        double closest = Double.POSITIVE_INFINITY;
+        if (nodeCount == 0 || findNodeEntryDistance(0, ray, maxDistance) == Double.POSITIVE_INFINITY)
+            return closest;
+
+        // the far children that are left to visit, and the distances in which the ray enters them
+        TraversalStack stack = TRAVERSAL_STACK.get();
+        int base = stack.take(depth), size = base;
+        try {
+            int node = 0;
+            while (true) {
+                int count = nodes[2 * node + 1];
+                if (count > 0) {
+                    double t = search.search(nodes[2 * node], count, maxDistance);
+                    if (t != Double.POSITIVE_INFINITY)
+                        closest = maxDistance = t;
+                } else {
+                    int near = node + 1, far = nodes[2 * node];
+                    double nearDistance = findNodeEntryDistance(near, ray, maxDistance);
+                    double farDistance = findNodeEntryDistance(far, ray, maxDistance);
+                    if (farDistance < nearDistance) {
+                        near = far;
+                        far = node + 1;
+                        double distance = nearDistance;
+                        nearDistance = farDistance;
+                        farDistance = distance;
+                    }
+                    if (nearDistance != Double.POSITIVE_INFINITY) {
+                        if (farDistance != Double.POSITIVE_INFINITY) {
+                            stack.nodes[size] = far;
+                            stack.distances[size++] = farDistance;
+                        }
+                        node = near;
+                        continue;
+                    }
+                }
+                // the far children that start after the closest intersection are skipped
+                do {
+                    if (size == base)
+                        return closest;
+                    node = stack.nodes[--size];
+                } while (alignZero(stack.distances[size] - maxDistance) > 0);
+            }
+        } finally {
+            stack.top = base;
+        }
+    }
+}
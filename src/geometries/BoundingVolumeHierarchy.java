@@ -0,0 +1,194 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * BoundingVolumeHierarchy class is a binary tree of bounding boxes {@link BoundingBox}
+ * over a list of graphic objects, used to skip the objects that a ray{@link Ray} can't hit.
+ * The tree is built by the binned surface area heuristic or by the morton codes of the centers
+ * of the objects (see {@link HierarchyBuilder}), and then laid out in primitive arrays
+ * in depth first order, which are traversed with a stack of node indices kept for every thread (see {@link BoundingTree})
+ *
+ * @author Michal Superfine & Evgi
+ */
+class BoundingVolumeHierarchy {
+    /**
+     * unbounded graphic objects, they are checked for every ray
+     */
+    private final Intersectable[] unbounded;
+    /**
+     * the bounded graphic objects, ordered by the leaves of the tree
+     */
+    private final Intersectable[] items;
+    /**
+     * the tree over the boxes of the bounded graphic objects
+     */
+    private final BoundingTree tree;
+    /**
+     * the statistics of the last build or refit of the tree
+     */
+    private HierarchyStatistics statistics;
+    /**
+     * the expected cost of a ray through the tree when it was built
+     */
+    private final double buildCost;
+
+    /**
+     * constructor - builds the tree over the graphic objects
+     *
+     * @param intersectables the graphic objects
+     * @param builder        the way the tree is built
+     */
+    BoundingVolumeHierarchy(List<Intersectable> intersectables, HierarchyBuilder builder) {
+        long start = System.nanoTime();
+        List<Intersectable> bounded = new LinkedList<>();
+        List<Intersectable> others = new LinkedList<>();
+        for (Intersectable item : intersectables)
+            (item.getBoundingBox().isUnbounded() ? others : bounded).add(item);
+
+        unbounded = others.toArray(new Intersectable[0]);
+        Intersectable[] objects = bounded.toArray(new Intersectable[0]);
+        // the boxes of the objects in a primitive array, 6 values per object
+        double[] bounds = new double[6 * objects.length];
+        for (int i = 0; i < objects.length; ++i) {
+            BoundingBox box = objects[i].getBoundingBox();
+            bounds[6 * i] = box.minX;
+            bounds[6 * i + 1] = box.minY;
+            bounds[6 * i + 2] = box.minZ;
+            bounds[6 * i + 3] = box.maxX;
+            bounds[6 * i + 4] = box.maxY;
+            bounds[6 * i + 5] = box.maxZ;
+        }
+        int[] order = new int[objects.length];
+        tree = new BoundingTree(bounds, order, builder);
+        items = new Intersectable[objects.length];
+        for (int i = 0; i < order.length; ++i)
+            items[i] = objects[order[i]];
+
+        statistics = tree.createStatistics(System.nanoTime() - start);
+        buildCost = statistics.getTraversalCost();
+    }
+
+    /**
+     * getter for the statistics of the last build or refit of the tree
+     *
+     * @return the statistics
+     */
+    HierarchyStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * update the boxes of the tree to the current boxes of the graphic objects, keeping the structure of the tree.
+     * The objects must not be searched during the update
+     *
+     * @param rebuildThreshold the ratio of the expected cost of a ray through the updated tree to the cost
+     *                         when the tree was built, above which the tree should be built again
+     * @return true if the tree should be built again - a bounded object became unbounded,
+     * or the expected cost grew above the threshold
+     */
+    boolean refit(double rebuildThreshold) {
+        long start = System.nanoTime();
+        if (!tree.refit(i -> items[i].getBoundingBox()))
+            return true;
+        statistics = tree.createStatistics(System.nanoTime() - start);
+        return statistics.getTraversalCost() > buildCost * rebuildThreshold;
+    }
+
+    /**
+     * find all intersection points that intersect with a specific ray{@link Ray}
+     * in a range of distance
+     *
+     * @param ray         ray pointing towards the graphic objects
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return list of intersection geo points, or null if there are none
+     */
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = new LinkedList<>();
+        for (Intersectable item : unbounded)
+            addAll(result, item.findGeoIntersectionsHelper(ray, maxDistance));
+        tree.visitLeaves(ray, maxDistance, (first, count) -> {
+            for (int i = first; i < first + count; ++i)
+                addAll(result, items[i].findGeoIntersectionsHelper(ray, maxDistance));
+            return true;
+        });
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * find the closest intersection point to the start of a ray{@link Ray} in a range of distance,
+     * the range shrinks to the closest point found so far
+     *
+     * @param ray         ray pointing towards the graphic objects
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection geo point, or null if there is none
+     */
+    GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        // the closest point found so far
+        GeoPoint[] closest = new GeoPoint[1];
+        for (Intersectable item : unbounded) {
+            GeoPoint gp = item.findClosestGeoIntersectionHelper(ray, maxDistance);
+            if (gp != null) {
+                closest[0] = gp;
+                maxDistance = gp.t;
+            }
+        }
+        tree.findClosest(ray, maxDistance, (first, count, distance) -> {
+            double t = Double.POSITIVE_INFINITY;
+            for (int i = first; i < first + count; ++i) {
+                GeoPoint gp = items[i].findClosestGeoIntersectionHelper(ray, distance);
+                if (gp != null) {
+                    closest[0] = gp;
+                    t = distance = gp.t;
+                }
+            }
+            return t;
+        });
+        return closest[0];
+    }
+
+    /**
+     * calculate the transparency along a ray{@link Ray} in a range of distance,
+     * stops as soon as the ray is blocked
+     *
+     * @param ray         ray pointing towards the graphic objects
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param ktr         the transparency accumulated so far along the ray
+     * @param minK        the transparency under which the ray is blocked
+     * @return the accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable item : unbounded) {
+            ktr = item.findTransparencyHelper(ray, maxDistance, ktr, minK);
+            if (ktr == Double3.ZERO)
+                return ktr;
+        }
+        // the transparency accumulated in the leaves
+        Double3[] result = {ktr};
+        tree.visitLeaves(ray, maxDistance, (first, count) -> {
+            for (int i = first; i < first + count; ++i) {
+                result[0] = items[i].findTransparencyHelper(ray, maxDistance, result[0], minK);
+                if (result[0] == Double3.ZERO)
+                    return false;
+            }
+            return true;
+        });
+        return result[0];
+    }
+
+    /**
+     * add the intersection points of a graphic object to the result list
+     *
+     * @param result     the result list
+     * @param itemResult the intersection points of the graphic object (may be null)
+     */
+    private static void addAll(List<GeoPoint> result, List<GeoPoint> itemResult) {
+        if (itemResult != null)
+            result.addAll(itemResult);
+    }
+}
@@ -52,4 +52,23 @@ public class Cylinder extends Tube{
     public Vector getNormal(Point p) {
         return null;
     }
+
+    /**
+     * calculate the axis aligned box that bounds the cylinder -
+     * the box of its two bases around the axis
+     * @return the bounding box of the cylinder
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Point p0 = axisRay.getP0();
+        Point p1 = axisRay.getPoint(height);
+        Vector dir = axisRay.getDir();
+        // the extent of a base circle on each axis
+        double ex = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        return new BoundingBox(Math.min(p0.getX(), p1.getX()) - ex, Math.min(p0.getY(), p1.getY()) - ey,
+                Math.min(p0.getZ(), p1.getZ()) - ez, Math.max(p0.getX(), p1.getX()) + ex,
+                Math.max(p0.getY(), p1.getY()) + ey, Math.max(p0.getZ(), p1.getZ()) + ez);
+    }
 }
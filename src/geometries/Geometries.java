@@ -1,20 +1,41 @@
 package geometries;
 
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Geometries class represents a list of geometry objects
+ * Geometries class represents a list of geometry objects.
+ * The bounding box and the bounding volume hierarchy of the objects are kept until the list is changed by
+ * {@link #add(Intersectable...)}. The geometries don't know the groups they are nested in - after objects
+ * are added to (or moved in) a nested group, {@link #refit()} must be called on the outermost group
  *
  * @author Michal Superfine & Evgi
  */
 public class Geometries extends Intersectable {
-    public List<Intersectable> _intersectables;
+    private final List<Intersectable> _intersectables;
+
+    /**
+     * bounding volume hierarchy over the geometry objects,
+     * built on the first search after the list was changed
+     */
+    private volatile BoundingVolumeHierarchy hierarchy = null;
+    /**
+     * the way the bounding volume hierarchy is built
+     */
+    private HierarchyBuilder hierarchyBuilder = HierarchyBuilder.SAH;
+    /**
+     * the ratio of the expected cost of a ray through a refitted hierarchy to its cost when it was built,
+     * above which the hierarchy is built again
+     */
+    private double rebuildThreshold = 1.5;
 
     /**
      * default constructor for Geometries
@@ -40,6 +61,130 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable... geometries) {
         Collections.addAll(_intersectables, geometries);
+        hierarchy = null;
+        resetBoundingBox();
+    }
+
+    /**
+     * getter for the geometry objects
+     *
+     * @return an unmodifiable view of the geometry objects, they are added by {@link #add(Intersectable...)}
+     */
+    public List<Intersectable> getIntersectables() {
+        return Collections.unmodifiableList(_intersectables);
+    }
+
+    /**
+     * setter for the way the bounding volume hierarchy is built, the hierarchy is built again on the next search
+     *
+     * @param hierarchyBuilder the way the hierarchy is built
+     * @return the geometries
+     */
+    public Geometries setHierarchyBuilder(HierarchyBuilder hierarchyBuilder) {
+        this.hierarchyBuilder = hierarchyBuilder;
+        hierarchy = null;
+        return this;
+    }
+
+    /**
+     * getter for the way the bounding volume hierarchy is built
+     *
+     * @return the way the hierarchy is built
+     */
+    public HierarchyBuilder getHierarchyBuilder() {
+        return hierarchyBuilder;
+    }
+
+    /**
+     * setter for the rebuild threshold of the hierarchy - when moved objects make the expected cost of a ray
+     * through the refitted hierarchy grow by more than this ratio, the hierarchy is built again
+     *
+     * @param rebuildThreshold the ratio of the cost after a refit to the cost after the build
+     * @return the geometries
+     * @throws IllegalArgumentException when the threshold is lower than 1
+     */
+    public Geometries setRebuildThreshold(double rebuildThreshold) {
+        if (rebuildThreshold < 1)
+            throw new IllegalArgumentException("The rebuild threshold must be at least 1");
+        this.rebuildThreshold = rebuildThreshold;
+        return this;
+    }
+
+    /**
+     * update the bounding volume hierarchy after geometry objects moved (see {@link Sphere#setCenter(Point)}
+     * and {@link Triangle#setVertices(Point, Point, Point)}) - the boxes of the hierarchy are calculated again
+     * from the boxes of the objects in linear time, without building the hierarchy again.
+     * If the hierarchy got too slow (see {@link #setRebuildThreshold(double)}) it is built again on the next search.
+     * Nested geometries and the objects of instances are updated first, a group shared by many instances once.
+     * Must not be called while the geometries are searched
+     */
+    public void refit() {
+        refit(Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * update the bounding volume hierarchy after geometry objects moved, unless it was already updated
+     *
+     * @param refitted the geometries that were already updated by the current refit
+     */
+    void refit(Set<Geometries> refitted) {
+        if (!refitted.add(this))
+            return;
+        for (Intersectable item : _intersectables)
+            if (item instanceof Geometries geometries)
+                geometries.refit(refitted);
+            else if (item instanceof Instance instance)
+                instance.refit(refitted);
+        resetBoundingBox();
+        BoundingVolumeHierarchy result = hierarchy;
+        if (result != null && result.refit(rebuildThreshold))
+            hierarchy = null;
+    }
+
+    /**
+     * calculate the box that bounds all the geometry objects
+     *
+     * @return the bounding box, {@link BoundingBox#UNBOUNDED} if any of the objects
+     * is unbounded or there are no objects
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = null;
+        for (Intersectable item : _intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box.isUnbounded())
+                return BoundingBox.UNBOUNDED;
+            result = result == null ? box : result.union(box);
+        }
+        return result == null ? BoundingBox.UNBOUNDED : result;
+    }
+
+    /**
+     * get the bounding volume hierarchy over the geometry objects,
+     * builds it if the list was changed since it was built
+     *
+     * @return the bounding volume hierarchy
+     */
+    private BoundingVolumeHierarchy getHierarchy() {
+        BoundingVolumeHierarchy result = hierarchy;
+        if (result == null) {
+            synchronized (this) {
+                result = hierarchy;
+                if (result == null)
+                    hierarchy = result = new BoundingVolumeHierarchy(_intersectables, hierarchyBuilder);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * get the statistics of the bounding volume hierarchy over the geometry objects -
+     * the build time and the quality of the tree, builds the tree if it wasn't built yet
+     *
+     * @return the statistics of the hierarchy
+     */
+    public HierarchyStatistics getHierarchyStatistics() {
+        return getHierarchy().getStatistics();
     }
 
     /**
@@ -47,18 +192,46 @@ public class Geometries extends Intersectable {
      * that intersect with a specific ray {@link Ray}
      *
      * @param ray ray pointing towards the shapes
+     * @param maxDistance the maximum distance between the point to the start of the ray
      * @return immutable list of intersection geo points
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> result = null;
-        for (Intersectable item : _intersectables) {
-            List<GeoPoint> itemResult = item.findGeoIntersectionsHelper(ray, maxDistance);
-            if (itemResult != null) {
-                if (result == null) result = new LinkedList<>();
-                result.addAll(itemResult);
-            }
-        }
-        return result;
+        // a nested group rejects the ray before going into its objects
+        if (!getBoundingBox().isIntersecting(ray, maxDistance))
+            return null;
+        return getHierarchy().findGeoIntersections(ray, maxDistance);
+    }
+
+    /**
+     * find the closest intersection point of the geometry objects
+     * to the start of a ray {@link Ray}
+     *
+     * @param ray ray pointing towards the shapes
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection geo point, or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        if (!getBoundingBox().isIntersecting(ray, maxDistance))
+            return null;
+        return getHierarchy().findClosestGeoIntersection(ray, maxDistance);
+    }
+
+    /**
+     * calculate how transparent the geometry objects are along a ray {@link Ray},
+     * stops at the first object that blocks the ray
+     *
+     * @param ray ray pointing towards the shapes
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param ktr the transparency accumulated so far along the ray
+     * @param minK the transparency under which the ray is blocked
+     * @return the accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!getBoundingBox().isIntersecting(ray, maxDistance))
+            return ktr;
+        return getHierarchy().findTransparency(ray, maxDistance, ktr, minK);
     }
 }
@@ -1,9 +1,11 @@
 package geometries;
 
-import primitives.Color;
-import primitives.Material;
-import primitives.Point;
-import primitives.Vector;
+import primitives.*;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
 
 /**
  * interface for all graphic 3D shapes that are
@@ -57,4 +59,102 @@ public abstract class Geometry extends Intersectable{
     public Material getMaterial() {
         return material;
     }
+
+    /**
+     * find the distance from the start of a ray{@link Ray} to its closest intersection point
+     * with the geometry in a range of distance - the intersection math kernel of the geometry,
+     * done with primitive doubles and without any allocation
+     * @param ray ray pointing towards the geometry
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance between the point to the start of the ray (inclusive)
+     * @return the distance of the closest intersection point in the range,
+     * {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    protected abstract double findIntersectionDistance(Ray ray, double minDistance, double maxDistance);
+
+    /**
+     * check whether an intersection distance is in the searched range
+     * @param t the distance of the point from the start of the ray
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance (inclusive)
+     * @return true if the distance is in the range
+     */
+    protected static boolean isInRange(double t, double minDistance, double maxDistance) {
+        return t > 0 && alignZero(t - minDistance) > 0 && alignZero(t - maxDistance) <= 0;
+    }
+
+    /**
+     * create the geo point of an intersection
+     * @param ray the intersecting ray
+     * @param t the distance of the point from the start of the ray
+     * @return the geo point
+     */
+    protected GeoPoint createGeoPoint(Ray ray, double t) {
+        return new GeoPoint(this, ray.getPoint(t), t);
+    }
+
+    /**
+     * find all intersection points {@link Point}
+     * that intersect with a specific ray{@link Ray} by the intersection math kernel
+     * @param ray ray pointing towards the geometry
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return list of intersection geo points, ordered by the distance, or null if there are none
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = findIntersectionDistance(ray, 0, maxDistance);
+        if (t == Double.POSITIVE_INFINITY)
+            return null;
+        double next = findIntersectionDistance(ray, t, maxDistance);
+        if (next == Double.POSITIVE_INFINITY)
+            return List.of(createGeoPoint(ray, t));
+
+        List<GeoPoint> result = new LinkedList<>();
+        result.add(createGeoPoint(ray, t));
+        for (; next != Double.POSITIVE_INFINITY; next = findIntersectionDistance(ray, next, maxDistance))
+            result.add(createGeoPoint(ray, next));
+        return result;
+    }
+
+    /**
+     * find the closest intersection point by the intersection math kernel,
+     * only the found point is allocated
+     * @param ray ray pointing towards the geometry
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection geo point, or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findIntersectionDistance(ray, 0, maxDistance);
+        return t == Double.POSITIVE_INFINITY ? null : createGeoPoint(ray, t);
+    }
+
+    /**
+     * calculate the transparency along a ray by the intersection math kernel,
+     * without allocating any intersection point - an opaque geometry blocks the ray on its first hit,
+     * and only a partly transparent geometry allocates the accumulated transparency
+     * @param ray ray pointing towards the geometry
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param ktr the transparency accumulated so far along the ray
+     * @param minK the transparency under which the ray is blocked
+     * @return the accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Double3 kT = material.kT;
+        // a fully transparent geometry doesn't change the ray
+        if (kT.equals(Double3.ONE))
+            return ktr;
+        double t = findIntersectionDistance(ray, 0, maxDistance);
+        if (t == Double.POSITIVE_INFINITY)
+            return ktr;
+        if (kT.equals(Double3.ZERO))
+            return Double3.ZERO;
+        for (; t != Double.POSITIVE_INFINITY; t = findIntersectionDistance(ray, t, maxDistance)) {
+            ktr = ktr.product(kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 }
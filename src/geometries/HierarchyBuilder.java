@@ -0,0 +1,19 @@
+package geometries;
+
+/**
+ * HierarchyBuilder enum is the way the bounding volume hierarchy over geometry objects is built -
+ * a slower build of a better tree, or a fast build for scenes that are rebuilt for every frame
+ *
+ * @author Michal Superfine & Evgi
+ */
+public enum HierarchyBuilder {
+    /**
+     * splits the objects by the binned surface area heuristic, the tree is cheap to traverse
+     */
+    SAH,
+    /**
+     * sorts the objects by the morton codes of their centers and splits them by the bits of the codes
+     * (linear bounding volume hierarchy), the build takes near linear time
+     */
+    LINEAR
+}
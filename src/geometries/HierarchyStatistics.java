@@ -0,0 +1,98 @@
+package geometries;
+
+/**
+ * HierarchyStatistics class reports the build (or the refit) of a bounding volume hierarchy - how long it took,
+ * and the quality of the tree, to balance the build cost against the rendering speed of a scene
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class HierarchyStatistics {
+    private final long buildTime;
+    private final int objectCount;
+    private final int nodeCount;
+    private final int leafCount;
+    private final int depth;
+    private final double traversalCost;
+
+    /**
+     * constructor
+     *
+     * @param buildTime     the build (or refit) time in nanoseconds
+     * @param objectCount   the number of bounded graphic objects in the tree
+     * @param nodeCount     the number of nodes (inner nodes and leaves)
+     * @param leafCount     the number of leaves
+     * @param depth         the number of levels of the tree
+     * @param traversalCost the expected cost of a ray through the tree
+     */
+    HierarchyStatistics(long buildTime, int objectCount, int nodeCount, int leafCount, int depth, double traversalCost) {
+        this.buildTime = buildTime;
+        this.objectCount = objectCount;
+        this.nodeCount = nodeCount;
+        this.leafCount = leafCount;
+        this.depth = depth;
+        this.traversalCost = traversalCost;
+    }
+
+    /**
+     * getter for the build time
+     *
+     * @return the build (or refit) time in nanoseconds
+     */
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * getter for the number of graphic objects
+     *
+     * @return the number of bounded graphic objects in the tree
+     */
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * getter for the number of nodes
+     *
+     * @return the number of nodes (inner nodes and leaves)
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * getter for the number of leaves
+     *
+     * @return the number of leaves
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * getter for the depth of the tree
+     *
+     * @return the number of levels of the tree
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * getter for the expected traversal cost - by the surface area heuristic, the chance of a ray
+     * that passes through the root to pass through a node is the ratio of their surface areas,
+     * so the cost is the sum of the visits of the nodes and the checks of the objects in the leaves,
+     * weighted by these chances (a check of an object costs 1)
+     *
+     * @return the expected cost of a ray through the tree
+     */
+    public double getTraversalCost() {
+        return traversalCost;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("build %.3f ms, %d objects, %d nodes, %d leaves, depth %d, traversal cost %.3f",
+                buildTime / 1e6, objectCount, nodeCount, leafCount, depth, traversalCost);
+    }
+}
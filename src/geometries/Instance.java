@@ -0,0 +1,180 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Instance class represents a copy of a shared group of geometry objects placed in the scene by a transformation -
+ * the objects and their bounding volume hierarchy are kept once for all the copies.
+ * Instances added to a {@link Geometries} make the top level of a two level hierarchy: the top level tree
+ * is built over the boxes of the instances in the scene, and a ray is moved into the space of the shared objects
+ * only when it passes through the box of an instance
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class Instance extends Intersectable {
+    private final Geometries geometries;
+    private Transform transform;
+
+    /**
+     * constructor
+     *
+     * @param geometries the shared geometry objects, in their own space
+     * @param transform  the transformation from the space of the objects to the scene
+     */
+    public Instance(Geometries geometries, Transform transform) {
+        this.geometries = geometries;
+        this.transform = transform;
+    }
+
+    /**
+     * getter for the shared geometry objects
+     *
+     * @return the geometry objects
+     */
+    public Geometries getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * getter for the transformation
+     *
+     * @return the transformation from the space of the objects to the scene
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * move the instance by a new transformation - the geometries that hold the instance
+     * are updated by {@link Geometries#refit()}
+     *
+     * @param transform the transformation from the space of the objects to the scene
+     * @return the instance
+     */
+    public Instance setTransform(Transform transform) {
+        this.transform = transform;
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * update the shared geometry objects after they moved (see {@link Geometries#refit()}) -
+     * the objects are updated once for all the instances that share them
+     *
+     * @param refitted the geometries that were already updated by the current refit
+     */
+    void refit(Set<Geometries> refitted) {
+        geometries.refit(refitted);
+        resetBoundingBox();
+    }
+
+    /**
+     * calculate the box that bounds the instance - the box of the 8 transformed corners of the box
+     * of the shared objects
+     *
+     * @return the bounding box, {@link BoundingBox#UNBOUNDED} if the shared objects are unbounded
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = geometries.getBoundingBox();
+        if (box.isUnbounded())
+            return BoundingBox.UNBOUNDED;
+        Point[] corners = new Point[8];
+        for (int i = 0; i < 8; ++i)
+            corners[i] = transform.transformPoint(new Point((i & 1) == 0 ? box.minX : box.maxX,
+                    (i & 2) == 0 ? box.minY : box.maxY, (i & 4) == 0 ? box.minZ : box.maxZ));
+        return new BoundingBox(corners);
+    }
+
+    /**
+     * move a ray to the space of the shared objects - the direction of the ray is normalized there,
+     * so distances along the ray are multiplied by the length of its transformed direction
+     *
+     * @param ray the ray in the scene
+     * @param dir the direction of the ray in the space of the objects (not normalized)
+     * @return the ray in the space of the objects
+     */
+    private Ray toObjectRay(Ray ray, Vector dir) {
+        return new Ray(transform.inverseTransformPoint(ray.getP0()), dir);
+    }
+
+    /**
+     * move an intersection point from the space of the shared objects to the scene
+     *
+     * @param ray   the ray in the scene
+     * @param gp    the intersection point in the space of the objects
+     * @param scale the length of the direction of the ray in the space of the objects
+     * @return the intersection point in the scene
+     */
+    private GeoPoint toWorldGeoPoint(Ray ray, GeoPoint gp, double scale) {
+        double t = gp.t / scale;
+        GeoPoint result = new GeoPoint(gp.geometry, ray.getPoint(t), t, transform.transformNormal(gp.getNormal()));
+        result.u = gp.u;
+        result.v = gp.v;
+        return result;
+    }
+
+    /**
+     * find all intersection points with the shared objects
+     *
+     * @param ray         ray pointing towards the instance
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return list of intersection geo points in the scene, or null if there are none
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        if (!getBoundingBox().isIntersecting(ray, maxDistance))
+            return null;
+        Vector dir = transform.inverseTransformVector(ray.getDir());
+        double scale = dir.length();
+        List<GeoPoint> intersections = geometries.findGeoIntersectionsHelper(toObjectRay(ray, dir), maxDistance * scale);
+        if (intersections == null)
+            return null;
+        List<GeoPoint> result = new LinkedList<>();
+        for (GeoPoint gp : intersections)
+            result.add(toWorldGeoPoint(ray, gp, scale));
+        return result;
+    }
+
+    /**
+     * find the closest intersection point with the shared objects
+     *
+     * @param ray         ray pointing towards the instance
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection geo point in the scene, or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        if (!getBoundingBox().isIntersecting(ray, maxDistance))
+            return null;
+        Vector dir = transform.inverseTransformVector(ray.getDir());
+        double scale = dir.length();
+        GeoPoint gp = geometries.findClosestGeoIntersectionHelper(toObjectRay(ray, dir), maxDistance * scale);
+        return gp == null ? null : toWorldGeoPoint(ray, gp, scale);
+    }
+
+    /**
+     * calculate how transparent the shared objects are along a ray
+     *
+     * @param ray         ray pointing towards the instance
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param ktr         the transparency accumulated so far along the ray
+     * @param minK        the transparency under which the ray is blocked
+     * @return the accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!getBoundingBox().isIntersecting(ray, maxDistance))
+            return ktr;
+        Vector dir = transform.inverseTransformVector(ray.getDir());
+        return geometries.findTransparencyHelper(toObjectRay(ray, dir), maxDistance * dir.length(), ktr, minK);
+    }
+}
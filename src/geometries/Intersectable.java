@@ -8,6 +8,11 @@ import java.util.List;
  * that intersect with a ray{@link Ray}
  */
 public abstract class Intersectable{
+    /**
+     * the bounding box of the graphic object, calculated on the first request
+     */
+    private BoundingBox boundingBox = null;
+
     /**
      * find all intersection points {@link Point}
      * that intersect with a specific ray{@link Ray}
@@ -48,6 +53,95 @@ public abstract class Intersectable{
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * find the closest intersection point to the start of a ray{@link Ray}
+     * @param ray ray pointing towards the graphic object
+     * @return the closest intersection geo point {@link GeoPoint}, or null if there is none
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * find the closest intersection point to the start of a ray{@link Ray} in a range of distance
+     * @param ray ray pointing towards the graphic object
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection geo point {@link GeoPoint}, or null if there is none
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * helper of findClosestGeoIntersection
+     * @param ray ray pointing towards the graphic object
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection geo point {@link GeoPoint}, or null if there is none
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+    }
+
+    /**
+     * calculate how transparent the graphic object is along a ray{@link Ray} in a range of distance
+     * (any-hit query - stops at the first hit that blocks the ray)
+     * @param ray ray pointing towards the graphic object
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param minK the transparency under which the ray is blocked
+     * @return the product of the transparency {@code kT} of every hit,
+     * {@link Double3#ZERO} if the ray is blocked
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        Double3 ktr = findTransparencyHelper(ray, maxDistance, Double3.ONE, minK);
+        return ktr.lowerThan(minK) ? Double3.ZERO : ktr;
+    }
+
+    /**
+     * helper of findTransparency
+     * @param ray ray pointing towards the graphic object
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param ktr the transparency accumulated so far along the ray
+     * @param minK the transparency under which the ray is blocked
+     * @return the accumulated transparency multiplied by {@code kT} of every hit,
+     * {@link Double3#ZERO} if the ray is blocked
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return ktr;
+        for (GeoPoint gp : intersections) {
+            ktr = ktr.product(gp.geometry.getMaterial().kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * get the axis aligned box that bounds the graphic object
+     * @return the bounding box {@link BoundingBox}, {@link BoundingBox#UNBOUNDED} if the object is unbounded
+     */
+    public final BoundingBox getBoundingBox() {
+        BoundingBox result = boundingBox;
+        if (result == null)
+            boundingBox = result = calcBoundingBox();
+        return result;
+    }
+
+    /**
+     * calculate the axis aligned box that bounds the graphic object
+     * @return the bounding box {@link BoundingBox}, {@link BoundingBox#UNBOUNDED} if the object is unbounded
+     */
+    protected abstract BoundingBox calcBoundingBox();
+
+    /**
+     * drop the calculated bounding box, it will be calculated again on the next request
+     */
+    protected void resetBoundingBox() {
+        boundingBox = null;
+    }
+
 
     /**
      * geo point is the point with the geometry object that it's on
@@ -55,15 +149,52 @@ public abstract class Intersectable{
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        /**
+         * the distance of the point from the start of the ray (the ray parameter t)
+         */
+        public double t;
+        /**
+         * coordinates of the point on the surface of the geometry
+         * (the barycentric coordinates for a triangle, 0 when the geometry doesn't set them)
+         */
+        public double u, v;
+        /**
+         * the normal of the geometry at the point, calculated on the first request
+         */
+        private Vector normal;
 
         /**
          * constructor for GeoPoint
          * @param geometry the geometry object
          * @param point the point
+         * @param t the distance of the point from the start of the ray
          */
-        public GeoPoint(Geometry geometry, Point point) {
+        public GeoPoint(Geometry geometry, Point point, double t) {
             this.geometry = geometry;
             this.point = point;
+            this.t = t;
+        }
+
+        /**
+         * constructor for GeoPoint with a known normal
+         * @param geometry the geometry object
+         * @param point the point
+         * @param t the distance of the point from the start of the ray
+         * @param normal the normal of the geometry at the point
+         */
+        public GeoPoint(Geometry geometry, Point point, double t, Vector normal) {
+            this(geometry, point, t);
+            this.normal = normal;
+        }
+
+        /**
+         * getter for the normal of the geometry at the point
+         * @return the normal vector
+         */
+        public Vector getNormal() {
+            if (normal == null)
+                normal = geometry.getNormal(point);
+            return normal;
         }
 
         @Override
@@ -76,6 +207,7 @@ public abstract class Intersectable{
             return "GeoPoint{" +
                     "geometry=" + geometry +
                     ", point=" + point +
+                    ", t=" + t +
                     '}';
         }
     }
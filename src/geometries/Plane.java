@@ -2,8 +2,6 @@ package geometries;
 
 import primitives.*;
 
-import java.util.List;
-
 import static primitives.Util.*;
 
 /**
@@ -72,29 +70,50 @@ public class Plane extends Geometry {
     }
 
     /**
-     * find all intersection points {@link Point}
-     * that intersect with a specific ray{@link Ray}
+     * a plane is unbounded
+     *
+     * @return {@link BoundingBox#UNBOUNDED}
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.UNBOUNDED;
+    }
+
+    /**
+     * find the distance from the start of a ray{@link Ray} to its intersection point with the plane
      *
-     * @param ray ray pointing towards the plane
-     * @return immutable list of intersection geo points
+     * @param ray         ray pointing towards the plane
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance between the point to the start of the ray (inclusive)
+     * @return the distance of the intersection point, {@link Double#POSITIVE_INFINITY} if there is none
      */
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+    protected double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
         Point p0 = ray.getP0();
         Vector v = ray.getDir();
-        Vector n = normal;
+        double qx = q0.getX() - p0.getX();
+        double qy = q0.getY() - p0.getY();
+        double qz = q0.getZ() - p0.getZ();
 
-        double nv = n.dotProduct(v);
+        double nv = normal.dotProduct(v);
         //ray parallel to plane or ray begins in the same point which appears as the plane's reference point
-        if (isZero(nv) || q0.equals(p0))
-            return null;
-        double nQMinusP0 = n.dotProduct(q0.subtract(p0));
+        if (isZero(nv) || (isZero(qx) && isZero(qy) && isZero(qz)))
+            return Double.POSITIVE_INFINITY;
+        double nQMinusP0 = normal.getX() * qx + normal.getY() * qy + normal.getZ() * qz;
         double t = alignZero(nQMinusP0 / nv);
-        if (t > 0 && alignZero(t - maxDistance) <= 0) {
-            Point p = ray.getPoint(t);
-            return List.of(new GeoPoint(this, p));
-        }
-        //t<=0
-        return null;
+        //t<=0 or out of the range
+        return isInRange(t, minDistance, maxDistance) ? t : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * create the geo point of an intersection with the normal of the plane
+     *
+     * @param ray the intersecting ray
+     * @param t   the distance of the point from the start of the ray
+     * @return the geo point
+     */
+    @Override
+    protected GeoPoint createGeoPoint(Ray ray, double t) {
+        return new GeoPoint(this, ray.getPoint(t), t, normal);
     }
 }
@@ -90,31 +90,48 @@ public class Polygon extends Geometry {
 	}
 
 	@Override
-	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-		List<GeoPoint> planeIntersections = plane.findGeoIntersectionsHelper(ray, maxDistance);
-		if (planeIntersections == null)
-			return null;
+	protected BoundingBox calcBoundingBox() {
+		return new BoundingBox(vertices.toArray(new Point[0]));
+	}
+
+	@Override
+	protected double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
+		double t = plane.findIntersectionDistance(ray, minDistance, maxDistance);
+		if (t == Double.POSITIVE_INFINITY)
+			return t;
 
 		Point p0 = ray.getP0();
 		Vector v = ray.getDir();
+		double vx = v.getX(), vy = v.getY(), vz = v.getZ();
 
-		Vector v1 = vertices.get(1).subtract(p0);
-		Vector v2 = vertices.get(0).subtract(p0);
-		double sign = v.dotProduct(v1.crossProduct(v2));
+		// the sides of the pyramid from the start of the ray to the edges, by their components
+		Point vertex = vertices.get(1);
+		double v1x = vertex.getX() - p0.getX(), v1y = vertex.getY() - p0.getY(), v1z = vertex.getZ() - p0.getZ();
+		vertex = vertices.get(0);
+		double v2x = vertex.getX() - p0.getX(), v2y = vertex.getY() - p0.getY(), v2z = vertex.getZ() - p0.getZ();
+		double sign = tripleProduct(vx, vy, vz, v1x, v1y, v1z, v2x, v2y, v2z);
 		if (isZero(sign))
-			return null;
+			return Double.POSITIVE_INFINITY;
 
 		boolean positive = sign > 0;
 
 		for (int i = vertices.size() - 1; i > 0; --i) {
-			v1 = v2;
-			v2 = vertices.get(i).subtract(p0);
-			sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
-			if (isZero(sign)) return null;
-			if (positive != (sign > 0)) return null;
+			v1x = v2x;
+			v1y = v2y;
+			v1z = v2z;
+			vertex = vertices.get(i);
+			v2x = vertex.getX() - p0.getX();
+			v2y = vertex.getY() - p0.getY();
+			v2z = vertex.getZ() - p0.getZ();
+			sign = alignZero(tripleProduct(vx, vy, vz, v1x, v1y, v1z, v2x, v2y, v2z));
+			if (isZero(sign)) return Double.POSITIVE_INFINITY;
+			if (positive != (sign > 0)) return Double.POSITIVE_INFINITY;
 		}
+		return t;
+	}
 
-		planeIntersections.get(0).geometry = this;
-		return planeIntersections;
+	@Override
+	protected GeoPoint createGeoPoint(Ray ray, double t) {
+		return new GeoPoint(this, ray.getPoint(t), t, plane.getNormal());
 	}
 }
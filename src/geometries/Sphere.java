@@ -4,9 +4,6 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import static primitives.Util.*;
 
 /**
@@ -15,7 +12,7 @@ import static primitives.Util.*;
  * @author Michal Superfine & Evgi
  */
 public class Sphere extends Geometry {
-    final private Point _center;
+    private Point _center;
     final private double _radius;
 
     /**
@@ -33,6 +30,19 @@ public class Sphere extends Geometry {
         return _center;
     }
 
+    /**
+     * move the sphere to a new center - the geometries that hold the sphere
+     * are updated by {@link Geometries#refit()}
+     *
+     * @param center the new center
+     * @return the sphere
+     */
+    public Sphere setCenter(Point center) {
+        _center = center;
+        resetBoundingBox();
+        return this;
+    }
+
     public double getRadius() {
         return _radius;
     }
@@ -62,50 +72,48 @@ public class Sphere extends Geometry {
     }
 
     /**
-     * find all intersection points {@link Point}
-     * that intersect with a specific ray{@link Ray}
+     * calculate the axis aligned box that bounds the sphere
      *
-     * @param ray ray pointing towards the sphere
-     * @return immutable list of intersection geo points
+     * @return the bounding box of the sphere
      */
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> result = null;
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(_center.getX() - _radius, _center.getY() - _radius, _center.getZ() - _radius,
+                _center.getX() + _radius, _center.getY() + _radius, _center.getZ() + _radius);
+    }
+
+    /**
+     * find the distance from the start of a ray{@link Ray} to its closest intersection point
+     * with the sphere in a range of distance
+     *
+     * @param ray         ray pointing towards the sphere
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance between the point to the start of the ray (inclusive)
+     * @return the distance of the intersection point, {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    @Override
+    protected double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
         Point p0 = ray.getP0();
         Vector v = ray.getDir();
+        double ux = _center.getX() - p0.getX();
+        double uy = _center.getY() - p0.getY();
+        double uz = _center.getZ() - p0.getZ();
 
-        Vector u;
-        try {
-            u = _center.subtract(p0);
-        } catch (IllegalArgumentException ignore) {
-            if (alignZero(_radius - maxDistance) <= 0)
-                result = List.of(new GeoPoint(this, ray.getPoint(_radius)));
-            return result;
-        }
+        // the ray starts at the center
+        if (isZero(ux) && isZero(uy) && isZero(uz))
+            return isInRange(_radius, minDistance, maxDistance) ? _radius : Double.POSITIVE_INFINITY;
 
-        double tm = alignZero(v.dotProduct(u));
-        double dSqr = alignZero(u.lengthSquared() - tm * tm);
+        double tm = alignZero(v.getX() * ux + v.getY() * uy + v.getZ() * uz);
+        double dSqr = alignZero(ux * ux + uy * uy + uz * uz - tm * tm);
         double thSqr = _radius * _radius - dSqr;
         // no intersections : the ray direction is above the sphere
-        if (alignZero(thSqr) <= 0) return null;
+        if (alignZero(thSqr) <= 0) return Double.POSITIVE_INFINITY;
 
         double th = alignZero(Math.sqrt(thSqr));
 
-        double t2 = alignZero(tm + th);
-        if (t2 <= 0) return null;
-
         double t1 = alignZero(tm - th);
-        if (t1 <= 0) {
-            if (alignZero(t2 - maxDistance) <= 0)
-                result = List.of(new GeoPoint(this, ray.getPoint(t2)));
-            return result;
-        } else {
-            result = new LinkedList<>();
-            if (alignZero(t1 - maxDistance) <= 0)
-                result.add(new GeoPoint(this, ray.getPoint(t1)));
-            if (alignZero(t2 - maxDistance) <= 0)
-                result.add(new GeoPoint(this, ray.getPoint(t2)));
-            return result.isEmpty() ? null : result;
-        }
+        if (isInRange(t1, minDistance, maxDistance)) return t1;
+        double t2 = alignZero(tm + th);
+        return isInRange(t2, minDistance, maxDistance) ? t2 : Double.POSITIVE_INFINITY;
     }
 }
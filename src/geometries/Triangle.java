@@ -4,7 +4,7 @@ import primitives.*;
 
 import java.util.List;
 
-import static primitives.Util.alignZero;
+import static primitives.Util.*;
 
 /**
  * Triangle class represents Triangle in 3 3D points
@@ -12,41 +12,120 @@ import static primitives.Util.alignZero;
  */
 public class Triangle extends Polygon {
     /**
-     * find all intersection points {@link Point}
-     * that intersect with a specific ray{@link Ray}
+     * a ray is parallel to a triangle when the determinant of the kernel divided by the lengths of the edges
+     * (the sine of the angle between the ray and the plane times the sine of the angle between the edges)
+     * is below this
+     */
+    static final double PARALLEL_EPSILON = 1e-12;
+
+    /**
+     * the first vertex and the two edges from it, precomputed for the intersection kernel
+     */
+    private double ax, ay, az;
+    private double e1x, e1y, e1z;
+    private double e2x, e2y, e2z;
+
+    /**
+     * find the distance from the start of a ray{@link Ray} to its intersection point with the triangle
      * @param ray ray pointing towards the triangle
-     * @return immutable list of intersection geo points
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance between the point to the start of the ray (inclusive)
+     * @return the distance of the intersection point, {@link Double#POSITIVE_INFINITY} if there is none
      */
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> result = plane.findGeoIntersectionsHelper(ray, maxDistance);
+    protected double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
+        return findIntersectionDistance(ray, ax, ay, az, e1x, e1y, e1z, e2x, e2y, e2z, minDistance, maxDistance, null);
+    }
 
-        //Check if the ray intersect the plane.
-        if (result == null) {
+    /**
+     * find the intersection point by the intersection math kernel - the kernel keeps the barycentric
+     * coordinates of the point, so only the found point is allocated
+     * @param ray ray pointing towards the triangle
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the intersection geo point, or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] barycentric = new double[2];
+        double t = findIntersectionDistance(ray, ax, ay, az, e1x, e1y, e1z, e2x, e2y, e2z, 0, maxDistance, barycentric);
+        if (t == Double.POSITIVE_INFINITY)
             return null;
-        }
-        for (GeoPoint g : result)
-            g.geometry=this;
+        GeoPoint gp = new GeoPoint(this, ray.getPoint(t), t, plane.getNormal());
+        gp.u = barycentric[0];
+        gp.v = barycentric[1];
+        return gp;
+    }
 
-        Vector v1 = vertices.get(0).subtract(ray.getP0());
-        Vector v2 = vertices.get(1).subtract(ray.getP0());
-        Vector v3 = vertices.get(2).subtract(ray.getP0());
+    /**
+     * find the intersection point - a ray crosses a triangle at most once
+     * @param ray ray pointing towards the triangle
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return list of the intersection geo point, or null if there is none
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        GeoPoint gp = findClosestGeoIntersectionHelper(ray, maxDistance);
+        return gp == null ? null : List.of(gp);
+    }
 
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
+    /**
+     * Möller–Trumbore intersection of a ray{@link Ray} with a triangle given by
+     * its first vertex a and its two edges e1 = b - a, e2 = c - a.
+     * The point of the ray is a + u*e1 + v*e2 - it is inside the triangle if u > 0, v > 0 and u + v < 1
+     * (a point on an edge is not an intersection)
+     * @param ray the ray
+     * @param ax x of the first vertex
+     * @param ay y of the first vertex
+     * @param az z of the first vertex
+     * @param e1x x of the first edge
+     * @param e1y y of the first edge
+     * @param e1z z of the first edge
+     * @param e2x x of the second edge
+     * @param e2y y of the second edge
+     * @param e2z z of the second edge
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance between the point to the start of the ray (inclusive)
+     * @param barycentric when not null, u and v of the intersection point are kept in its two cells
+     *                    (it is not changed when there is no intersection)
+     * @return the distance of the intersection point, {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    static double findIntersectionDistance(Ray ray, double ax, double ay, double az,
+                                           double e1x, double e1y, double e1z,
+                                           double e2x, double e2y, double e2z,
+                                           double minDistance, double maxDistance, double[] barycentric) {
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        // p = dir x e2
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // the ray is parallel to the triangle - the determinant is compared to the lengths of the edges,
+        // so a small triangle isn't taken as parallel to every ray
+        double edges = (e1x * e1x + e1y * e1y + e1z * e1z) * (e2x * e2x + e2y * e2y + e2z * e2z);
+        if (det * det <= PARALLEL_EPSILON * PARALLEL_EPSILON * edges) return Double.POSITIVE_INFINITY;
+        double invDet = 1 / det;
 
-        Vector v = ray.getDir();
+        Point p0 = ray.getP0();
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * invDet);
+        if (u <= 0 || u >= 1) return Double.POSITIVE_INFINITY;
 
-        double vn1 = alignZero(v.dotProduct(n1));
-        double vn2 = alignZero(v.dotProduct(n2));
-        double vn3 = alignZero(v.dotProduct(n3));
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * invDet);
+        if (v <= 0 || alignZero(u + v - 1) >= 0) return Double.POSITIVE_INFINITY;
 
-        //The point is inside if all 𝒗 ∙ 𝒏𝒊 have the same sign (+/-)
-        if ((vn1 > 0 && vn2 > 0 && vn3 > 0) || (vn1 < 0 && vn2 < 0 && vn3 < 0)) {
-            return result;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        if (!isInRange(t, minDistance, maxDistance)) return Double.POSITIVE_INFINITY;
+        if (barycentric != null) {
+            barycentric[0] = u;
+            barycentric[1] = v;
         }
-        return null;
+        return t;
     }
 
     /**
@@ -58,6 +137,41 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        setEdges(p1, p2, p3);
+    }
+
+    /**
+     * move the triangle to new vertices - the geometries that hold the triangle
+     * are updated by {@link Geometries#refit()}
+     * @param p1 the first vertex
+     * @param p2 the second vertex
+     * @param p3 the third vertex
+     * @return the triangle
+     */
+    public Triangle setVertices(Point p1, Point p2, Point p3) {
+        vertices = List.of(p1, p2, p3);
+        plane = new Plane(p1, p2, p3);
+        setEdges(p1, p2, p3);
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * precompute the first vertex and the two edges from it
+     * @param p1 the first vertex
+     * @param p2 the second vertex
+     * @param p3 the third vertex
+     */
+    private void setEdges(Point p1, Point p2, Point p3) {
+        ax = p1.getX();
+        ay = p1.getY();
+        az = p1.getZ();
+        e1x = p2.getX() - ax;
+        e1y = p2.getY() - ay;
+        e1z = p2.getZ() - az;
+        e2x = p3.getX() - ax;
+        e2y = p3.getY() - ay;
+        e2z = p3.getZ() - az;
     }
 
 
@@ -0,0 +1,305 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.*;
+
+/**
+ * TriangleMesh class represents a mesh of triangles that share their vertices.
+ * The vertices are kept in one flat buffer of coordinates and the triangles in one buffer
+ * of vertex indices, with a single emission and material for the whole mesh.
+ * The triangles are searched through a bounding volume hierarchy kept in flat arrays as well
+ * (see {@link BoundingTree}), so a mesh of millions of triangles needs only a few arrays.
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * the coordinates of the vertices - x, y, z of every vertex
+     */
+    private final double[] vertices;
+    /**
+     * the indices of the vertices of the triangles - 3 indices for every triangle
+     * (ordered by the leaves of the hierarchy)
+     */
+    private final int[] indices;
+
+    /**
+     * the hierarchy over the boxes of the triangles
+     */
+    private final BoundingTree tree;
+
+    /**
+     * constructor - the buffers are copied, so the mesh doesn't change with them
+     *
+     * @param vertices the coordinates of the vertices - x, y, z of every vertex
+     * @param indices  the indices of the vertices of the triangles - 3 indices for every triangle
+     * @throws IllegalArgumentException when the buffers are empty, are not made of triads,
+     *                                  or a triangle refers to a missing vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length == 0 || vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertex buffer must hold x, y, z of every vertex");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The index buffer must hold 3 vertices of every triangle");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A triangle refers to a missing vertex");
+
+        this.vertices = vertices.clone();
+        int triangleCount = indices.length / 3;
+        double[] bounds = new double[6 * triangleCount];
+        for (int triangle = 0; triangle < triangleCount; ++triangle)
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[3 * indices[3 * triangle] + axis];
+                double b = vertices[3 * indices[3 * triangle + 1] + axis];
+                double c = vertices[3 * indices[3 * triangle + 2] + axis];
+                bounds[6 * triangle + axis] = Math.min(a, Math.min(b, c));
+                bounds[6 * triangle + axis + 3] = Math.max(a, Math.max(b, c));
+            }
+        int[] order = new int[triangleCount];
+        tree = new BoundingTree(bounds, order, HierarchyBuilder.SAH);
+        this.indices = new int[indices.length];
+        for (int i = 0; i < triangleCount; ++i)
+            System.arraycopy(indices, 3 * order[i], this.indices, 3 * i, 3);
+    }
+
+    /**
+     * getter for the number of triangles in the mesh
+     *
+     * @return the number of triangles
+     */
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh{" +
+                "vertices=" + vertices.length / 3 +
+                ", triangles=" + indices.length / 3 +
+                '}';
+    }
+
+    /**
+     * the normal of the triangle that holds a point - the triangles whose boxes hold the point are found
+     * by the hierarchy. The geo points found by the mesh already carry the normal, so prefer {@link GeoPoint#getNormal()}
+     *
+     * @param p a point on the mesh
+     * @return the normal of the triangle, or null if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point p) {
+        double px = p.getX(), py = p.getY(), pz = p.getZ();
+        // the normal of the triangle found
+        Vector[] result = {null};
+        tree.visitLeaves(px, py, pz, (first, count) -> {
+            for (int triangle = first; triangle < first + count; ++triangle)
+                if (isOnTriangle(triangle, px, py, pz)) {
+                    result[0] = getTriangleNormal(triangle);
+                    return false;
+                }
+            return true;
+        });
+        return result[0];
+    }
+
+    /**
+     * check whether a point is on one triangle of the mesh - on its plane and inside its edges
+     *
+     * @param triangle the index of the triangle
+     * @param px       the first coordinate of the point
+     * @param py       the second coordinate of the point
+     * @param pz       the third coordinate of the point
+     * @return true if the point is on the triangle, false if not or the triangle is degenerated
+     */
+    private boolean isOnTriangle(int triangle, double px, double py, double pz) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        double dx = px - ax, dy = py - ay, dz = pz - az;
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        double n2 = nx * nx + ny * ny + nz * nz;
+        double d11 = e1x * e1x + e1y * e1y + e1z * e1z, d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+        if (isDegenerated(n2, d11, d22))
+            return false;
+        // the distance of the point from the plane of the triangle
+        if (!isZero((nx * dx + ny * dy + nz * dz) / Math.sqrt(n2)))
+            return false;
+        // the barycentric coordinates of the point
+        double d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double dp1 = dx * e1x + dy * e1y + dz * e1z, dp2 = dx * e2x + dy * e2y + dz * e2z;
+        double denominator = d11 * d22 - d12 * d12;
+        double u = (d22 * dp1 - d12 * dp2) / denominator;
+        double v = (d11 * dp2 - d12 * dp1) / denominator;
+        return alignZero(u) >= 0 && alignZero(v) >= 0 && alignZero(u + v - 1) <= 0;
+    }
+
+    /**
+     * check whether a triangle is degenerated - the length of the cross product of its edges
+     * is compared to the lengths of the edges, by the epsilon of the parallel test of the intersection kernel
+     * (see {@link Triangle#findIntersectionDistance}), so every triangle the kernel hits has a normal
+     *
+     * @param cross the squared length of the cross product of the edges
+     * @param edge1 the squared length of the first edge
+     * @param edge2 the squared length of the second edge
+     * @return true if the triangle is degenerated
+     */
+    private static boolean isDegenerated(double cross, double edge1, double edge2) {
+        return cross <= Triangle.PARALLEL_EPSILON * Triangle.PARALLEL_EPSILON * edge1 * edge2;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return tree.getBoundingBox();
+    }
+
+    @Override
+    protected double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
+        return tree.findClosest(ray, maxDistance, (first, count, distance) -> {
+            double closest = Double.POSITIVE_INFINITY;
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                double t = findTriangleDistance(triangle, ray, minDistance, distance, null);
+                if (t != Double.POSITIVE_INFINITY)
+                    closest = distance = t;
+            }
+            return closest;
+        });
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        // the closest triangle found so far and its barycentric coordinates - the kernel changes them
+        // only on a hit, and every hit is closer than the ones before it
+        int[] closest = {-1};
+        double[] barycentric = new double[2];
+        double t = tree.findClosest(ray, maxDistance, (first, count, distance) -> {
+            double leafClosest = Double.POSITIVE_INFINITY;
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                double triangleDistance = findTriangleDistance(triangle, ray, 0, distance, barycentric);
+                if (triangleDistance != Double.POSITIVE_INFINITY) {
+                    closest[0] = triangle;
+                    leafClosest = distance = triangleDistance;
+                }
+            }
+            return leafClosest;
+        });
+        return t == Double.POSITIVE_INFINITY ? null : createGeoPoint(closest[0], ray, t, barycentric);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = new LinkedList<>();
+        double[] barycentric = new double[2];
+        tree.visitLeaves(ray, maxDistance, (first, count) -> {
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                double t = findTriangleDistance(triangle, ray, 0, maxDistance, barycentric);
+                if (t != Double.POSITIVE_INFINITY)
+                    result.add(createGeoPoint(triangle, ray, t, barycentric));
+            }
+            return true;
+        });
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * calculate the transparency of the triangles along a ray - an opaque mesh blocks the ray on its first hit,
+     * and only a partly transparent mesh allocates the accumulated transparency
+     *
+     * @param ray         ray pointing towards the mesh
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @param ktr         the transparency accumulated so far along the ray
+     * @param minK        the transparency under which the ray is blocked
+     * @return the accumulated transparency, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Double3 kT = getMaterial().kT;
+        // a fully transparent mesh doesn't change the ray
+        if (kT.equals(Double3.ONE))
+            return ktr;
+        boolean opaque = kT.equals(Double3.ZERO);
+        // the transparency accumulated in the leaves
+        Double3[] result = {ktr};
+        tree.visitLeaves(ray, maxDistance, (first, count) -> {
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                if (findTriangleDistance(triangle, ray, 0, maxDistance, null) != Double.POSITIVE_INFINITY) {
+                    if (!opaque)
+                        result[0] = result[0].product(kT);
+                    if (opaque || result[0].lowerThan(minK)) {
+                        result[0] = Double3.ZERO;
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+        return result[0];
+    }
+
+    /**
+     * the intersection of a ray{@link Ray} with one triangle of the mesh, by the
+     * Möller–Trumbore kernel of {@link Triangle}
+     *
+     * @param triangle    the index of the triangle
+     * @param ray         the ray
+     * @param minDistance the distance the point must be farther than (exclusive)
+     * @param maxDistance the maximum distance between the point to the start of the ray (inclusive)
+     * @param barycentric when not null, the barycentric coordinates of the intersection point are kept in it
+     * @return the distance of the intersection point, {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    private double findTriangleDistance(int triangle, Ray ray, double minDistance, double maxDistance,
+                                        double[] barycentric) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        return Triangle.findIntersectionDistance(ray, ax, ay, az,
+                vertices[b] - ax, vertices[b + 1] - ay, vertices[b + 2] - az,
+                vertices[c] - ax, vertices[c + 1] - ay, vertices[c + 2] - az,
+                minDistance, maxDistance, barycentric);
+    }
+
+    /**
+     * the normal of one triangle of the mesh - it is normalized before it is made a vector,
+     * so the normal of a tiny triangle isn't taken as the zero vector
+     *
+     * @param triangle the index of the triangle
+     * @return the normal (normalized), or null if the triangle is degenerated
+     */
+    private Vector getTriangleNormal(int triangle) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        double n2 = nx * nx + ny * ny + nz * nz;
+        if (isDegenerated(n2, e1x * e1x + e1y * e1y + e1z * e1z, e2x * e2x + e2y * e2y + e2z * e2z))
+            return null;
+        double length = Math.sqrt(n2);
+        return new Vector(nx / length, ny / length, nz / length);
+    }
+
+    /**
+     * create the geo point of an intersection with one triangle of the mesh,
+     * with the normal of the triangle and the barycentric coordinates of the point
+     *
+     * @param triangle    the index of the triangle
+     * @param ray         the intersecting ray
+     * @param t           the distance of the point from the start of the ray
+     * @param barycentric the barycentric coordinates of the point found by the kernel
+     * @return the geo point
+     */
+    private GeoPoint createGeoPoint(int triangle, Ray ray, double t, double[] barycentric) {
+        GeoPoint gp = new GeoPoint(this, ray.getPoint(t), t, getTriangleNormal(triangle));
+        gp.u = barycentric[0];
+        gp.v = barycentric[1];
+        return gp;
+    }
+}
@@ -4,8 +4,6 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.List;
-
 import static primitives.Util.isZero;
 
 /**
@@ -63,9 +61,22 @@ public class Tube extends Geometry{
         return p.subtract(axisRay.getP0().add(projection)).normalize();
     }
 
+    /**
+     * an infinite tube is unbounded
+     * @return {@link BoundingBox#UNBOUNDED}
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.UNBOUNDED;
+    }
+
+    /**
+     * intersections with a tube are not calculated yet
+     * @return {@link Double#POSITIVE_INFINITY} - no intersection
+     */
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        return null;
+    protected double findIntersectionDistance(Ray ray, double minDistance, double maxDistance) {
+        return Double.POSITIVE_INFINITY;
     }
 
 
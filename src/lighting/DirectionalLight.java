@@ -4,8 +4,6 @@ import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
 
-import java.util.List;
-
 /**
  * class for a direction light without position
  * @author michal superfine & evgi
@@ -44,12 +42,6 @@ public class DirectionalLight extends Light implements LightSource{
         return direction;
     }
 
-    @Override
-    public Vector[][] getListL(Point p) {
-        Vector[][] v = {{getL(p)}};
-        return v;
-    }
-
     @Override
     public double getDistance(Point point) {
         return Double.POSITIVE_INFINITY;
@@ -2,8 +2,6 @@ package lighting;
 
 import primitives.*;
 
-import java.util.List;
-
 /**
  * interface for all the lights
  */
@@ -24,12 +22,25 @@ public interface LightSource {
     public Vector getL(Point p);
 
     /**
-     * Get the direction of the light from a point
-     *
-     * @param p         the point
-     * @return the direction
+     * get the number of samples taken on the light for soft shadows
+     * @return the number of samples, 1 for a light without area
+     */
+    default int getSampleCount() {
+        return 1;
+    }
+
+    /**
+     * get the direction of the light towards the point from one sample position on the light,
+     * the sample is given by its coordinates in the unit square - the caller chooses
+     * the samples, so no sample list is built
+     * @param p the point
+     * @param u first coordinate of the sample, in [0, 1]
+     * @param v second coordinate of the sample, in [0, 1]
+     * @return the direction from the sample position to the point
      */
-    Vector[][] getListL(Point p);
+    default Vector getL(Point p, double u, double v) {
+        return getL(p);
+    }
 
     /**
      * calculate the distance between the point to the light source
@@ -4,6 +4,8 @@ import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
 
+import static primitives.Util.isZero;
+
 
 /**
  * class for a point light with position and without direction
@@ -15,7 +17,10 @@ public class PointLight extends Light implements LightSource{
     private double kC, kL, kQ;
     private double radius=10;
 
-    private final int numOfRays=10;
+    /**
+     * number of samples taken on the light for soft shadows
+     */
+    private int sampleCount=400;
     /**
      * constructor of point light
      * @param intensity=the color of the light
@@ -59,6 +64,35 @@ public class PointLight extends Light implements LightSource{
         return this;
     }
 
+    /**
+     * setter for the radius of the light - the area that casts soft shadows
+     * @param radius the radius
+     * @return the point light
+     */
+    public PointLight setRadius(double radius) {
+        this.radius = radius;
+        return this;
+    }
+
+    /**
+     * setter for the number of samples taken on the light for soft shadows -
+     * the adaptive sampling takes them on a square grid, so for it the number is rounded down to a square
+     * @param sampleCount the number of samples
+     * @return the point light
+     * @throws IllegalArgumentException when the number of samples is not positive
+     */
+    public PointLight setSampleCount(int sampleCount) {
+        if (sampleCount <= 0)
+            throw new IllegalArgumentException("The number of samples must be positive");
+        this.sampleCount = sampleCount;
+        return this;
+    }
+
+    @Override
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
     /**
      *getter for intensity
      * @param p=the point that we return its color
@@ -87,23 +121,60 @@ public class PointLight extends Light implements LightSource{
         return null;
     }
 
+    /**
+     * getter for the light direction from a sample position on the light - the light is treated
+     * as a sphere of its radius, and the samples are spread over the disk of the sphere that faces the point.
+     * The unit square is mapped to the disk by the concentric mapping, which keeps the areas,
+     * so stratified samples of the square are stratified on the disk
+     * @param p the point the light comes to
+     * @param u first coordinate of the sample, in [0, 1]
+     * @param v second coordinate of the sample, in [0, 1]
+     * @return the light direction from the sample position
+     */
     @Override
-    public Vector[][] getListL(Point p) {
-        Vector[][] vectors = new Vector[2 * numOfRays][2 * numOfRays];
-        int row = 0;
-        int column;
-        double y = getL(p).getY();
-        for (double i = -radius; i < radius; i += radius / numOfRays, ++row) {
-            column = 0;
-            for (double j = -radius; j < radius; j += radius / numOfRays, ++column) {
-                if (i != 0 && j != 0) {
-                    Point point = position.add(new Vector(i, y, j));
-                    vectors[row][column] = (p.subtract(point).normalize());
-                } else
-                    vectors[row][column] = getL(p);
-            }
+    public Vector getL(Point p, double u, double v) {
+        // the direction from the center of the light to the point
+        double lx = p.getX() - position.getX(), ly = p.getY() - position.getY(), lz = p.getZ() - position.getZ();
+        double length = Math.sqrt(lx * lx + ly * ly + lz * lz);
+        if (isZero(length))
+            return null;
+        lx /= length;
+        ly /= length;
+        lz /= length;
+
+        // the concentric mapping of the square [-1, 1] x [-1, 1] to the unit disk
+        double a = 2 * u - 1, b = 2 * v - 1;
+        double r, phi;
+        if (isZero(a) && isZero(b))
+            return new Vector(lx, ly, lz);
+        if (Math.abs(a) > Math.abs(b)) {
+            r = a;
+            phi = Math.PI / 4 * (b / a);
+        } else {
+            r = b;
+            phi = Math.PI / 2 - Math.PI / 4 * (a / b);
         }
-        return vectors;
+        double x = radius * r * Math.cos(phi), y = radius * r * Math.sin(phi);
+
+        // two directions on the disk, orthogonal to the direction of the light
+        double ex, ey, ez;
+        if (Math.abs(lx) > Math.abs(ly)) {
+            double d = Math.sqrt(lx * lx + lz * lz);
+            ex = -lz / d;
+            ey = 0;
+            ez = lx / d;
+        } else {
+            double d = Math.sqrt(ly * ly + lz * lz);
+            ex = 0;
+            ey = lz / d;
+            ez = -ly / d;
+        }
+        double fx = ly * ez - lz * ey, fy = lz * ex - lx * ez, fz = lx * ey - ly * ex;
+
+        // from the sample position to the point
+        return new Vector(lx * length - x * ex - y * fx,
+                ly * length - x * ey - y * fy,
+                lz * length - x * ez - y * fz).normalize();
     }
 
     /**
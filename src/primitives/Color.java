@@ -76,6 +76,33 @@ public class Color {
 		return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
 	}
 
+	/**
+	 * Red component getter, without the upper limit of 255
+	 *
+	 * @return the red component
+	 */
+	public double getRed() {
+		return rgb.d1;
+	}
+
+	/**
+	 * Green component getter, without the upper limit of 255
+	 *
+	 * @return the green component
+	 */
+	public double getGreen() {
+		return rgb.d2;
+	}
+
+	/**
+	 * Blue component getter, without the upper limit of 255
+	 *
+	 * @return the blue component
+	 */
+	public double getBlue() {
+		return rgb.d3;
+	}
+
 	/**
 	 * Operation of adding this and one or more other colors (by component)
 	 *
@@ -142,6 +169,24 @@ public class Color {
 		return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
 	}
 
+	/**
+	 * Check whether the color and other colors look the same in the image - every
+	 * component, limited to 255 as in the image, differs by at most the tolerance
+	 *
+	 * @param tolerance the maximal difference, in 8-bit output units
+	 * @param colors    the other colors
+	 * @return true if all the colors are close to this color, false otherwise
+	 */
+	public boolean isClose(double tolerance, Color... colors) {
+		double r = Math.min(rgb.d1, 255), g = Math.min(rgb.d2, 255), b = Math.min(rgb.d3, 255);
+		for (Color c : colors)
+			if (Math.abs(Math.min(c.rgb.d1, 255) - r) > tolerance
+					|| Math.abs(Math.min(c.rgb.d2, 255) - g) > tolerance
+					|| Math.abs(Math.min(c.rgb.d3, 255) - b) > tolerance)
+				return false;
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return "rgb:" + rgb;
@@ -49,6 +49,33 @@ public class Double3 {
 		this.d3 = value;
 	}
 
+	/**
+	 * First number value getter
+	 *
+	 * @return the first number value
+	 */
+	public double getD1() {
+		return d1;
+	}
+
+	/**
+	 * Second number value getter
+	 *
+	 * @return the second number value
+	 */
+	public double getD2() {
+		return d2;
+	}
+
+	/**
+	 * Third number value getter
+	 *
+	 * @return the third number value
+	 */
+	public double getD3() {
+		return d3;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Objects;
 import geometries.Intersectable.GeoPoint;
 
-import static primitives.Util.random;
+import static primitives.Util.*;
 
 /**
  * Ray class represents Ray in 3D Point and a Vector
@@ -15,6 +15,9 @@ public class Ray {
     private Point _p0;
     private Vector _dir;
 
+    //reciprocal of the direction components, for the slab test against bounding boxes
+    private double _invX, _invY, _invZ;
+
     //parameter for size of first moving rays for shading rays
     private static final double DELTA = 0.1;
 
@@ -27,6 +30,7 @@ public class Ray {
     public Ray(Point p0, Vector dir) {
         this._p0 = p0;
         this._dir = dir.normalize();
+        initInverseDirection();
     }
 
     /**
@@ -45,6 +49,17 @@ public class Ray {
 
         Vector normalEpsilon = n.scale((nv > 0 ? DELTA : -DELTA));
         _p0 = p.add(normalEpsilon);
+        initInverseDirection();
+    }
+
+    /**
+     * calculate the reciprocal of the direction components
+     * (a zero component gives an infinite reciprocal with the sign of the zero)
+     */
+    private void initInverseDirection() {
+        _invX = 1 / _dir.getX();
+        _invY = 1 / _dir.getY();
+        _invZ = 1 / _dir.getZ();
     }
 
 
@@ -80,21 +95,89 @@ public class Ray {
      * @return p0+ v*t
      */
     public Point getPoint(double t){
-        return _p0.add(_dir.scale(t));
+        return new Point(_p0.getX() + _dir.getX() * t,
+                _p0.getY() + _dir.getY() * t,
+                _p0.getZ() + _dir.getZ() * t);
+    }
+
+    /**
+     * check whether the ray passes through an axis aligned box in a range of distance
+     *
+     * @param minX        the minimal x coordinate of the box
+     * @param minY        the minimal y coordinate of the box
+     * @param minZ        the minimal z coordinate of the box
+     * @param maxX        the maximal x coordinate of the box
+     * @param maxY        the maximal y coordinate of the box
+     * @param maxZ        the maximal z coordinate of the box
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return true if the ray passes through the box, false otherwise
+     */
+    public boolean isIntersectingBox(double minX, double minY, double minZ,
+                                     double maxX, double maxY, double maxZ, double maxDistance) {
+        return findBoxEntryDistance(minX, minY, minZ, maxX, maxY, maxZ, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * find the distance in which the ray enters an axis aligned box in a range of distance
+     * (slab test with the reciprocal of the direction, without allocations)
+     *
+     * @param minX        the minimal x coordinate of the box
+     * @param minY        the minimal y coordinate of the box
+     * @param minZ        the minimal z coordinate of the box
+     * @param maxX        the maximal x coordinate of the box
+     * @param maxY        the maximal y coordinate of the box
+     * @param maxZ        the maximal z coordinate of the box
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the distance from the start of the ray to the box (0 if it starts inside the box),
+     * {@link Double#POSITIVE_INFINITY} if the ray doesn't pass through the box in the range
+     */
+    public double findBoxEntryDistance(double minX, double minY, double minZ,
+                                       double maxX, double maxY, double maxZ, double maxDistance) {
+        double tMin = 0;
+        double tMax = maxDistance;
+        // a start point on the slab of a parallel ray gives NaN, which fails the comparisons
+        // so the slab doesn't limit the range
+        double tNear = ((_invX < 0 ? maxX : minX) - _p0.getX()) * _invX;
+        double tFar = ((_invX < 0 ? minX : maxX) - _p0.getX()) * _invX;
+        if (tNear > tMin) tMin = tNear;
+        if (tFar < tMax) tMax = tFar;
+
+        tNear = ((_invY < 0 ? maxY : minY) - _p0.getY()) * _invY;
+        tFar = ((_invY < 0 ? minY : maxY) - _p0.getY()) * _invY;
+        if (tNear > tMin) tMin = tNear;
+        if (tFar < tMax) tMax = tFar;
+
+        tNear = ((_invZ < 0 ? maxZ : minZ) - _p0.getZ()) * _invZ;
+        tFar = ((_invZ < 0 ? minZ : maxZ) - _p0.getZ()) * _invZ;
+        if (tNear > tMin) tMin = tNear;
+        if (tFar < tMax) tMax = tFar;
+
+        return tMin <= tMax || isZero(tMin - tMax) ? tMin : Double.POSITIVE_INFINITY;
     }
 
     /**
-     * ind the closest point to the beginning of the ray
+     * find the closest point to the beginning of the ray
      * @param points the list of points
      * @return the closest point
      */
     public Point findClosestPoint(List<Point> points) {
-        return points == null || points.isEmpty() ? null
-                : findClosestGeoPoint(points.stream().map(p -> new GeoPoint(null, p)).toList()).point;
+        if (points == null || points.isEmpty())
+            return null;
+        Point result = null;
+        double closest = Double.POSITIVE_INFINITY;
+        for (Point p : points) {
+            double temp = p.distanceSquared(_p0);
+            if (temp < closest) {
+                closest = temp;
+                result = p;
+            }
+        }
+        return result;
     }
 
     /**
      * find the closest GeoPoint to the beginning of the ray
+     * (by the distance each GeoPoint carries from the start of the ray)
      * @param geoPoints the geo points
      * @return the closest GeoPoint
      */
@@ -102,11 +185,10 @@ public class Ray {
         if(geoPoints==null || geoPoints.isEmpty())
             return null;
         GeoPoint result= null;
-        Double closest= Double.MAX_VALUE;
+        double closest= Double.POSITIVE_INFINITY;
         for (GeoPoint p: geoPoints) {
-            double temp = p.point.distance(_p0);
-            if (temp < closest) {
-                closest = temp;
+            if (p.t < closest) {
+                closest = p.t;
                 result = p;
             }
         }
@@ -0,0 +1,198 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * Transform class represents an affine transformation of the space - a 3x3 linear part and a translation,
+ * with its inverse calculated once. Transformations are made of translations, scalings and rotations
+ * combined by {@link #then(Transform)}
+ *
+ * @author Michal Superfine & Evgi
+ */
+public final class Transform {
+    /**
+     * the transformation that leaves every point in its place
+     */
+    public static final Transform IDENTITY = new Transform(new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * the rows of the matrix - the 3 linear coefficients and the translation of x, then of y and of z
+     */
+    private final double[] m;
+    /**
+     * the rows of the matrix of the inverse transformation
+     */
+    private final double[] inverse;
+
+    /**
+     * constructor - calculates the inverse of the matrix
+     *
+     * @param m the rows of the matrix, 4 numbers in every row
+     * @throws IllegalArgumentException when the transformation can't be inverted
+     */
+    private Transform(double[] m) {
+        this.m = m;
+        // the inverse of the linear part by the cofactors, and the translation is moved back through it
+        double c00 = m[5] * m[10] - m[6] * m[9];
+        double c01 = m[6] * m[8] - m[4] * m[10];
+        double c02 = m[4] * m[9] - m[5] * m[8];
+        double det = m[0] * c00 + m[1] * c01 + m[2] * c02;
+        if (isZero(det))
+            throw new IllegalArgumentException("The transformation can't be inverted");
+        double[] inv = new double[12];
+        inv[0] = c00 / det;
+        inv[1] = (m[2] * m[9] - m[1] * m[10]) / det;
+        inv[2] = (m[1] * m[6] - m[2] * m[5]) / det;
+        inv[4] = c01 / det;
+        inv[5] = (m[0] * m[10] - m[2] * m[8]) / det;
+        inv[6] = (m[2] * m[4] - m[0] * m[6]) / det;
+        inv[8] = c02 / det;
+        inv[9] = (m[1] * m[8] - m[0] * m[9]) / det;
+        inv[10] = (m[0] * m[5] - m[1] * m[4]) / det;
+        for (int row = 0; row < 3; ++row)
+            inv[4 * row + 3] = -(inv[4 * row] * m[3] + inv[4 * row + 1] * m[7] + inv[4 * row + 2] * m[11]);
+        this.inverse = inv;
+    }
+
+    /**
+     * create a translation
+     *
+     * @param v the vector every point is moved by
+     * @return the translation
+     */
+    public static Transform translation(Vector v) {
+        return new Transform(new double[]{1, 0, 0, v.getX(), 0, 1, 0, v.getY(), 0, 0, 1, v.getZ()});
+    }
+
+    /**
+     * create a scaling around the origin
+     *
+     * @param sx the scale of x
+     * @param sy the scale of y
+     * @param sz the scale of z
+     * @return the scaling
+     * @throws IllegalArgumentException when one of the scales is 0
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        return new Transform(new double[]{sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0});
+    }
+
+    /**
+     * create a rotation around an axis through the origin (counterclockwise when the axis points to the viewer)
+     *
+     * @param axis  the direction of the axis
+     * @param angle the angle in degrees
+     * @return the rotation
+     */
+    public static Transform rotation(Vector axis, double angle) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians), sin = Math.sin(radians), t = 1 - cos;
+        return new Transform(new double[]{
+                t * x * x + cos, t * x * y - sin * z, t * x * z + sin * y, 0,
+                t * x * y + sin * z, t * y * y + cos, t * y * z - sin * x, 0,
+                t * x * z - sin * y, t * y * z + sin * x, t * z * z + cos, 0});
+    }
+
+    /**
+     * combine the transformation with another one
+     *
+     * @param next the transformation that is applied after this one
+     * @return the transformation that applies this one and then the next one
+     */
+    public Transform then(Transform next) {
+        double[] n = next.m;
+        double[] result = new double[12];
+        for (int row = 0; row < 3; ++row) {
+            for (int column = 0; column < 4; ++column)
+                result[4 * row + column] = n[4 * row] * m[column] + n[4 * row + 1] * m[4 + column]
+                        + n[4 * row + 2] * m[8 + column];
+            result[4 * row + 3] += n[4 * row + 3];
+        }
+        return new Transform(result);
+    }
+
+    /**
+     * transform a point
+     *
+     * @param p the point
+     * @return the transformed point
+     */
+    public Point transformPoint(Point p) {
+        return applyToPoint(m, p);
+    }
+
+    /**
+     * transform a point by the inverse transformation
+     *
+     * @param p the transformed point
+     * @return the original point
+     */
+    public Point inverseTransformPoint(Point p) {
+        return applyToPoint(inverse, p);
+    }
+
+    /**
+     * transform a direction - the translation doesn't change it, and it isn't normalized
+     *
+     * @param v the direction
+     * @return the transformed direction
+     */
+    public Vector transformVector(Vector v) {
+        return applyToVector(m, v);
+    }
+
+    /**
+     * transform a direction by the inverse transformation - the length of the result is the ratio of the lengths
+     * along the direction, so distances along a ray keep their ratio
+     *
+     * @param v the transformed direction
+     * @return the original direction
+     */
+    public Vector inverseTransformVector(Vector v) {
+        return applyToVector(inverse, v);
+    }
+
+    /**
+     * transform the normal of a surface - by the transpose of the inverse, so it stays orthogonal to the
+     * transformed surface
+     *
+     * @param n the normal
+     * @return the normalized transformed normal
+     */
+    public Vector transformNormal(Vector n) {
+        double x = n.getX(), y = n.getY(), z = n.getZ();
+        return new Vector(inverse[0] * x + inverse[4] * y + inverse[8] * z,
+                inverse[1] * x + inverse[5] * y + inverse[9] * z,
+                inverse[2] * x + inverse[6] * y + inverse[10] * z).normalize();
+    }
+
+    /**
+     * multiply a point by a matrix
+     *
+     * @param matrix the rows of the matrix
+     * @param p      the point
+     * @return the result point
+     */
+    private static Point applyToPoint(double[] matrix, Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        return new Point(matrix[0] * x + matrix[1] * y + matrix[2] * z + matrix[3],
+                matrix[4] * x + matrix[5] * y + matrix[6] * z + matrix[7],
+                matrix[8] * x + matrix[9] * y + matrix[10] * z + matrix[11]);
+    }
+
+    /**
+     * multiply a direction by the linear part of a matrix
+     *
+     * @param matrix the rows of the matrix
+     * @param v      the direction
+     * @return the result direction
+     */
+    private static Vector applyToVector(double[] matrix, Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Vector(matrix[0] * x + matrix[1] * y + matrix[2] * z,
+                matrix[4] * x + matrix[5] * y + matrix[6] * z,
+                matrix[8] * x + matrix[9] * y + matrix[10] * z);
+    }
+}
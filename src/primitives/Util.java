@@ -69,4 +69,25 @@ public abstract class Util {
 		return Math.random() * (max - min) + min;
 	}
 
+	/**
+	 * Triple product a.(b x c) of three vectors given by their components,
+	 * calculated without creating vector objects
+	 * 
+	 * @param ax x of the 1st vector
+	 * @param ay y of the 1st vector
+	 * @param az z of the 1st vector
+	 * @param bx x of the 2nd vector
+	 * @param by y of the 2nd vector
+	 * @param bz z of the 2nd vector
+	 * @param cx x of the 3rd vector
+	 * @param cy y of the 3rd vector
+	 * @param cz z of the 3rd vector
+	 * @return the triple product
+	 */
+	public static double tripleProduct(double ax, double ay, double az,
+									   double bx, double by, double bz,
+									   double cx, double cy, double cz) {
+		return ax * (by * cz - bz * cy) + ay * (bz * cx - bx * cz) + az * (bx * cy - by * cx);
+	}
+
 }
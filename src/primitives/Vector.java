@@ -2,6 +2,8 @@ package primitives;
 
 import java.lang.*;
 
+import static primitives.Util.isZero;
+
 /**
  * Vector class represents Vector in 3D Point
  * @author Michal Superfine & Evgi
@@ -15,7 +17,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (Double3.ZERO.equals(xyz)) {
+        if (isZero(x) && isZero(y) && isZero(z)) {
             throw new IllegalArgumentException("ZERO vector not allowed");
         }
     }
@@ -26,7 +28,7 @@ public class Vector extends Point {
      */
     public Vector(Double3 xyz) {
         super(xyz);
-        if (Double3.ZERO.equals(xyz))
+        if (isZero(xyz.d1) && isZero(xyz.d2) && isZero(xyz.d3))
             throw new IllegalArgumentException("ZERO vector not allowed");
     }
 
@@ -56,8 +58,7 @@ public class Vector extends Point {
      * @return algebraic added vector
      */
     public Vector add(Vector other) {
-        Point result=super.add(other);
-        return new Vector(result.xyz);
+        return new Vector(xyz.add(other.xyz));
     }
 
     /**
@@ -76,8 +77,7 @@ public class Vector extends Point {
      * @return the result of scalar multiple
      */
     public double dotProduct(Vector v){
-        Double3 result = xyz.product(v.xyz);
-        return result.d1+result.d2+result.d3;
+        return xyz.d1 * v.xyz.d1 + xyz.d2 * v.xyz.d2 + xyz.d3 * v.xyz.d3;
     }
 
     /**
@@ -97,8 +97,7 @@ public class Vector extends Point {
      * @return the squared length of the vector
      */
     public double lengthSquared(){
-        Point p= new Point(0,0,0);
-        return super.distanceSquared(p);
+        return xyz.d1 * xyz.d1 + xyz.d2 * xyz.d2 + xyz.d3 * xyz.d3;
     }
 
     /**
@@ -113,5 +112,8 @@ public class Vector extends Point {
      * normalize the vector
      * @return the result of the normalized vector
      */
-    public Vector normalize(){ return new Vector(xyz.reduce(this.length())); }
+    public Vector normalize(){
+        double length = length();
+        return new Vector(xyz.d1 / length, xyz.d2 / length, xyz.d3 / length);
+    }
 }
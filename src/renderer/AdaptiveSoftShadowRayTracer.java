@@ -0,0 +1,133 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * AdaptiveSoftShadowRayTracer class is the ray tracer of adaptive soft shadows - the samples of every light
+ * are the centers of the cells of a grid on the light, and a quarter of the grid is divided again
+ * only if its corner colors differ by more than the threshold
+ *
+ * @author Michal Superfine & Evgi
+ */
+class AdaptiveSoftShadowRayTracer extends RayTracerBasic {
+    private final int depth;
+    private final double adaptiveThreshold;
+
+    /**
+     * constructor of the adaptive soft shadows ray tracer
+     *
+     * @param scene    the scene
+     * @param settings the settings of the rendering
+     */
+    AdaptiveSoftShadowRayTracer(Scene scene, RenderSettings settings) {
+        super(scene, settings);
+        this.depth = settings.getAdaptiveDepth();
+        this.adaptiveThreshold = settings.getAdaptiveThreshold();
+    }
+
+    /**
+     * calculate the light contribution of one light source - sampled adaptively on a grid
+     *
+     * @param geoPoint    the geo point we calculate the color of
+     * @param ray         ray from the camera to the point
+     * @param lightSource the light source
+     * @param context     the context of the rendering thread
+     * @return the contribution of the light source
+     */
+    @Override
+    protected Color calcLightEffects(GeoPoint geoPoint, Ray ray, LightSource lightSource, TraceContext context) {
+        // the adaptive sampling needs the samples in a grid - the centers of the cells of a side x side grid
+        int side = (int) Math.sqrt(lightSource.getSampleCount());
+        // the colors of the calculated samples of the grid, each sample is calculated once
+        Color[][] colors = context.getLightGrid(side);
+        Color lu = getGridColor(colors, side, 0, 0, geoPoint, ray, lightSource, context);
+        Color ld = getGridColor(colors, side, side - 1, 0, geoPoint, ray, lightSource, context);
+        Color ru = getGridColor(colors, side, 0, side - 1, geoPoint, ray, lightSource, context);
+        Color rd = getGridColor(colors, side, side - 1, side - 1, geoPoint, ray, lightSource, context);
+        return helpSuperSampling(colors, side, lu, ld, ru, rd,
+                0, 0, side - 1, side - 1, geoPoint, ray, lightSource, depth, context);
+    }
+
+    /**
+     * get the direction of the light from the center of one cell of a grid of samples on the light
+     *
+     * @param lightSource the light source
+     * @param p           the point the light comes to
+     * @param side        the number of cells in a row (and column) of the grid
+     * @param row         the row of the cell
+     * @param column      the column of the cell
+     * @return the direction from the sample to the point
+     */
+    private Vector getSampleL(LightSource lightSource, Point p, int side, int row, int column) {
+        return lightSource.getL(p, (column + 0.5) / side, (row + 0.5) / side);
+    }
+
+    /**
+     * get the color of one sample of the light grid - the sample is calculated only the first time,
+     * and its color is kept for the neighboring quarters
+     *
+     * @param colors      the colors of the samples calculated so far (null for a sample that wasn't calculated)
+     * @param side        the number of cells in a row (and column) of the grid
+     * @param row         the row of the sample in the grid
+     * @param column      the column of the sample in the grid
+     * @param geoPoint    the geo point we calculate the color of
+     * @param ray         ray from the camera to the point
+     * @param lightSource the current light source
+     * @param context     the context of the rendering thread
+     * @return the color from the light sample at the point
+     */
+    private Color getGridColor(Color[][] colors, int side, int row, int column, GeoPoint geoPoint, Ray ray,
+                               LightSource lightSource, TraceContext context) {
+        if (colors[row][column] == null)
+            colors[row][column] = getColor(geoPoint, lightSource, Color.BLACK,
+                    getSampleL(lightSource, geoPoint.point, side, row, column), ray, context);
+        return colors[row][column];
+    }
+
+    /**
+     * the function helps calcLightEffects to get the color with super sampling -
+     * a quarter of the grid is divided again only if its corner colors differ by more than the threshold
+     *
+     * @param colors      the colors of the samples of the light grid calculated so far (null for the others)
+     * @param side        the number of cells in a row (and column) of the grid
+     * @param lu          the left up point
+     * @param ld          the left down point
+     * @param ru          the right up point
+     * @param rd          the right down point
+     * @param x           index x of left up
+     * @param y           index y of left up
+     * @param z           index x of right down
+     * @param w           index y of right down
+     * @param geoPoint    the geo point we calculate the color of
+     * @param ray         ray from the camera to the point
+     * @param lightSource the current light source
+     * @param depth       the deep of the recursion
+     * @param context     the context of the rendering thread
+     * @return the color from the light at the point
+     */
+    private Color helpSuperSampling(Color[][] colors, int side, Color lu, Color ld, Color ru, Color rd, int x, int y, int z, int w,
+                                    GeoPoint geoPoint, Ray ray, LightSource lightSource, int depth, TraceContext context) {
+        // the corners are close enough, or there are no more samples between them
+        if (depth == 0 || (z - x < 2 && w - y < 2) || lu.isClose(adaptiveThreshold, ld, ru, rd))
+            return lu.add(ld, ru, rd).reduce(4);
+        Color mu = getGridColor(colors, side, x, (y + w) / 2, geoPoint, ray, lightSource, context);
+        Color md = getGridColor(colors, side, z, (y + w) / 2, geoPoint, ray, lightSource, context);
+        Color mm = getGridColor(colors, side, (x + z) / 2, (y + w) / 2, geoPoint, ray, lightSource, context);
+        Color lm = getGridColor(colors, side, (x + z) / 2, y, geoPoint, ray, lightSource, context);
+        Color rm = getGridColor(colors, side, (x + z) / 2, w, geoPoint, ray, lightSource, context);
+        return helpSuperSampling(colors, side, lu, lm, mu, mm, x, y, (x + z) / 2, (y + w) / 2,
+                geoPoint, ray, lightSource, depth - 1, context).add(
+                helpSuperSampling(colors, side, mu, mm, ru, rm, x, (y + w) / 2, (x + z) / 2, w,
+                        geoPoint, ray, lightSource, depth - 1, context),
+                helpSuperSampling(colors, side, lm, ld, mm, md, (x + z) / 2, y, z, (y + w) / 2,
+                        geoPoint, ray, lightSource, depth - 1, context),
+                helpSuperSampling(colors, side, mm, md, rm, rd, (x + z) / 2, (y + w) / 2, z, w,
+                        geoPoint, ray, lightSource, depth - 1, context)).reduce(4);
+    }
+}
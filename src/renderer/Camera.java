@@ -1,11 +1,14 @@
 package renderer;
 
-import geometries.Plane;
 import multiThreading.ThreadPool;
 import primitives.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.MissingResourceException;
-import java.util.Random;
-import static java.lang.Math.sqrt;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 import static primitives.Util.*;
 
 /**
@@ -25,6 +28,7 @@ public class Camera {
     private double _distance;
     private ImageWriter imageWriter;
     private RayTracer rayTracer;
+    private Sampler sampler = new StratifiedSampler();
 
 
     /**
@@ -59,6 +63,117 @@ public class Camera {
         return this;
     }
 
+    /**
+     * the color difference (in 8-bit output units) under which the adaptive super sampling stops dividing
+     */
+    private double adaptiveThreshold = 1;
+
+    /**
+     * the minimal and maximal number of rays of a pixel in adaptive super sampling
+     */
+    private int minAdaptiveSamples = 4;
+    private int maxAdaptiveSamples = Integer.MAX_VALUE;
+
+    /**
+     * setter of the threshold of adaptive super sampling, shared with the ray tracer for the area lights
+     *
+     * @param adaptiveThreshold the color difference (in 8-bit output units) under which the sampling stops dividing
+     * @return the camera
+     */
+    public Camera setAdaptiveThreshold(double adaptiveThreshold) {
+        this.adaptiveThreshold = adaptiveThreshold;
+        return this;
+    }
+
+    /**
+     * setter of the sample budget of a pixel in adaptive super sampling - the pixel is divided
+     * until it has the minimal number of rays even if its colors are close,
+     * and is not divided when it would pass the maximal number of rays
+     *
+     * @param minSamples the minimal number of rays of a pixel
+     * @param maxSamples the maximal number of rays of a pixel
+     * @return the camera
+     * @throws IllegalArgumentException when the budget is not 4 &lt;= minSamples &lt;= maxSamples
+     */
+    public Camera setAdaptiveSampleBudget(int minSamples, int maxSamples) {
+        if (minSamples < 4 || maxSamples < minSamples)
+            throw new IllegalArgumentException("The sample budget must be 4 <= minSamples <= maxSamples");
+        this.minAdaptiveSamples = minSamples;
+        this.maxAdaptiveSamples = maxSamples;
+        return this;
+    }
+
+    /**
+     * number of samples of a pixel in the unified sample pipeline (0 - the pipeline is off).
+     * Every sample takes one pixel position, one aperture position and a few light samples together
+     */
+    private int samplesPerPixel = 0;
+
+    /**
+     * number of light samples of every sample of a pixel in the unified sample pipeline
+     */
+    private int lightSamplesPerSample = 1;
+
+    /**
+     * setter of the unified sample pipeline - anti-aliasing, depth of field and soft shadows (the ones that are on)
+     * share one budget of samples per pixel instead of multiplying their rays
+     *
+     * @param samplesPerPixel      the number of samples of a pixel, 0 to turn the pipeline off
+     * @param lightSamplesPerSample the number of light samples of every sample
+     * @return the camera
+     * @throws IllegalArgumentException when samplesPerPixel is negative or lightSamplesPerSample is not positive
+     */
+    public Camera setSamplesPerPixel(int samplesPerPixel, int lightSamplesPerSample) {
+        if (samplesPerPixel < 0 || lightSamplesPerSample <= 0)
+            throw new IllegalArgumentException("The number of samples must be positive");
+        this.samplesPerPixel = samplesPerPixel;
+        this.lightSamplesPerSample = lightSamplesPerSample;
+        return this;
+    }
+
+    /**
+     * the weight under which a reflected or refracted ray plays Russian roulette (0 - no Russian roulette)
+     */
+    private double rouletteWeight = 0;
+
+    /**
+     * the maximal number of reflected and refracted rays of a pixel
+     */
+    private int secondaryRayBudget = Integer.MAX_VALUE;
+
+    /**
+     * setter of the Russian roulette of the reflected and refracted rays - a ray with a weight
+     * (the product of kR and kT along its path) under the given weight is traced in probability
+     * of its weight over the given weight, and its color is raised by the inverse probability,
+     * so the low weight paths end early without darkening the image on average
+     *
+     * @param rouletteWeight the weight under which the rays play Russian roulette, 0 to turn it off
+     * @return the camera
+     * @throws IllegalArgumentException when the weight is not in [0, 1)
+     */
+    public Camera setRussianRoulette(double rouletteWeight) {
+        if (rouletteWeight < 0 || rouletteWeight >= 1)
+            throw new IllegalArgumentException("The roulette weight must be in [0, 1)");
+        this.rouletteWeight = rouletteWeight;
+        return this;
+    }
+
+    /**
+     * setter of the budget of reflected and refracted rays of a pixel - the budget is split evenly
+     * between the samples of the pixel, and when a sample traced its share of secondary rays,
+     * its path ends at its next point
+     *
+     * @param secondaryRayBudget the maximal number of secondary rays of a pixel
+     * @return the camera
+     * @throws IllegalArgumentException when the budget is not positive
+     */
+    public Camera setSecondaryRayBudget(int secondaryRayBudget) {
+        if (secondaryRayBudget <= 0)
+            throw new IllegalArgumentException("The secondary ray budget must be positive");
+        this.secondaryRayBudget = secondaryRayBudget;
+        return this;
+    }
+
     private int _N = 8;
     private int _M = 8;
 
@@ -97,7 +212,7 @@ public class Camera {
     /** Aperture properties. **/
 
     /**
-     * number with integer square for the matrix of points.
+     * number of the points of the aperture, spread by the sampler.
      */
     private int APERTURE_NUMBER_OF_POINTS = 100;
 
@@ -106,11 +221,6 @@ public class Camera {
      */
     private double apertureSize;
 
-    /**
-     * Creating an array of Point objects.
-     */
-    private Point[] aperturePoints;
-
     /** Focal plane parameters. **/
 
     /**
@@ -119,9 +229,15 @@ public class Camera {
     private double FP_distance;
 
     /**
-     * Declaring a variable called FOCAL_PLANE of type Plane.
+     * A boolean variable that determines whether to trace all the aperture points only where
+     * the first aperture points differ in color.
+     */
+    private boolean isAdaptiveDepthOfFiled = false;
+
+    /**
+     * number of the aperture points traced first in adaptive depth of field.
      */
-    private Plane FOCAL_PLANE;
+    private static final int APERTURE_INITIAL_NUMBER_OF_POINTS = 4;
 
     /** Depth Of Filed improvements **/
 
@@ -143,62 +259,76 @@ public class Camera {
      */
     public Camera setFPDistance(double distance) {
         this.FP_distance = distance;
-        this.FOCAL_PLANE = new Plane(this._p0.add(this._vTo.scale(FP_distance)), this._vTo);
         return this;
     }
 
     /**
-     * This function sets the aperture size of the camera and initializes the points of the aperture.
+     * This function sets the adaptive depth of field - a few aperture points are traced first,
+     * and all the aperture points are traced only if their colors differ (e.g. out of focus).
+     *
+     * @param isAdaptiveDepthOfFiled If true, the depth of field will be adaptive.
+     * @return The camera itself.
+     */
+    public Camera setAdaptiveDepthOfFiled(boolean isAdaptiveDepthOfFiled) {
+        this.isAdaptiveDepthOfFiled = isAdaptiveDepthOfFiled;
+        return this;
+    }
+
+    /**
+     * This function sets the aperture size of the camera - half of the side of the aperture square.
      *
      * @param size the size of the aperture.
      * @return The camera object itself.
      */
     public Camera setApertureSize(double size) {
         this.apertureSize = size;
-
-        //initializing the points of the aperture.
-        if (size != 0) initializeAperturePoint();
-
         return this;
     }
 
     /**
-     * The function initializes the aperture points array by calculating the distance between the points and the initial
-     * point, and then initializing the array with the points
+     * setter for the sampler that spreads the rays of anti-aliasing, of the aperture and of the area lights -
+     * the sampler is handed to the ray tracer in the settings of the rendering
+     *
+     * @param sampler the sampler
+     * @return the camera
      */
-    private void initializeAperturePoint() {
-        //the number of points in a row
-        int pointsInRow = (int) sqrt(this.APERTURE_NUMBER_OF_POINTS);
-
-        //the array of point saved as an array
-        this.aperturePoints = new Point[pointsInRow * pointsInRow];
-
-        //calculating the initial values.
-        double pointsDistance = (this.apertureSize * 2) / pointsInRow;
-        //calculate the initial point to be the point with coordinates outside the aperture in the down left point, so we won`t have to deal with illegal vectors.
-        Point initialPoint = this._p0
-                .add(this._vUp.scale(-this.apertureSize - pointsDistance / 2)
-                        .add(this._vRight.scale(-this.apertureSize - pointsDistance / 2)));
-
-        //initializing the points array
-        for (int i = 1; i <= pointsInRow; i++) {
-            for (int j = 1; j <= pointsInRow; j++) {
-                this.aperturePoints[(i - 1) + (j - 1) * pointsInRow] = initialPoint
-                        .add(this._vUp.scale(i * pointsDistance).add(this._vRight.scale(j * pointsDistance)));
-            }
-        }
+    public Camera setSampler(Sampler sampler) {
+        this.sampler = sampler;
+        return this;
     }
 
-    private ThreadPool<Pixel> threadPool = null;
+    private ThreadPool<Tile> threadPool = null;
+    /**
+     * width and height (in pixels) of the tiles handed to the threads on multithreaded rendering
+     */
+    private int tileSize = 16;
+    /**
+     * index of the next tile to render on multithreaded rendering, tiles are taken in rows
+     */
+    private final AtomicInteger nextTile = new AtomicInteger();
+
+    /**
+     * the ray tracer of the current rendering, specialized for its settings
+     */
+    private RayTracer renderTracer;
+    /**
+     * the frame buffer the samples of the pixels are accumulated in
+     */
+    private FrameBuffer frameBuffer = null;
     /**
-     * Next pixel of the scene
+     * the context of every thread of the current multithreaded rendering
      */
-    private Pixel nextPixel = null;
+    private ThreadLocal<TraceContext> threadContext;
+    /**
+     * the contexts of the threads of the last rendering, for its statistics
+     */
+    private final List<TraceContext> renderContexts = Collections.synchronizedList(new ArrayList<>());
 
-    /*
-     * random variable used for stochastic ray creation
+    /**
+     * seed of the random streams used for stochastic ray creation,
+     * every pixel has its own stream derived from this seed and its coordinates
      */
-    private final Random r = new Random();
+    private long seed = 0;
 
     /**
      * get height method
@@ -332,6 +462,45 @@ public class Camera {
         return this;
     }
 
+    /**
+     * setter for the seed of the stochastic ray creation -
+     * the same seed renders the same image, regardless of the number of threads
+     *
+     * @param seed the seed
+     * @return the camera
+     */
+    public Camera setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * create the random stream of a pixel - it depends only on the seed and the pixel coordinates,
+     * so each thread samples its own pixels without sharing a random generator
+     *
+     * @param j first coordinate of the pixel
+     * @param i second coordinate of the pixel
+     * @return the random stream of the pixel
+     */
+    private RandomGenerator createPixelRandom(int j, int i) {
+        return new SplittableRandom(pixelKey(j, i));
+    }
+
+    /**
+     * get the key of a pixel - the pixel coordinates and the seed mixed by a hash (splitmix64),
+     * so neighboring pixels and neighboring seeds get unrelated keys
+     *
+     * @param j first coordinate of the pixel
+     * @param i second coordinate of the pixel
+     * @return the key of the pixel
+     */
+    private long pixelKey(int j, int i) {
+        long z = seed + ((long) i << 32 | (j & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     /**
      * Function writeToImage produces unoptimized png file of the image according to
      * pixel color matrix in the directory of the project
@@ -362,19 +531,31 @@ public class Camera {
             final int nX = imageWriter.getNx();
             final int nY = imageWriter.getNy();
 
+            //the settings are fixed for the whole rendering, the ray tracer is specialized for them once
+            RenderSettings settings = createRenderSettings();
+            renderTracer = rayTracer.specialize(settings);
+            renderContexts.clear();
+            //the samples are accumulated in the frame buffer, and written to the image at the end
+            if (frameBuffer == null || frameBuffer.getNx() != nX || frameBuffer.getNy() != nY)
+                frameBuffer = new FrameBuffer(nX, nY);
+            else
+                frameBuffer.clear();
+
             //rendering the image with multithreaded
             if (threadPool != null) {
-                nextPixel = new Pixel(0, 0);
+                threadContext = ThreadLocal.withInitial(() -> createTraceContext(settings));
+                nextTile.set(0);
                 threadPool.execute();
                 threadPool.join();
-                return this;
-            }
-
-            for (int i = 0; i < nY; i = ++i) {
-                for (int j = 0; j < nX; ++j) {
-                    this.imageWriter.writePixel(j, i, castRay(j, i));
+            } else {
+                TraceContext context = createTraceContext(settings);
+                for (int i = 0; i < nY; i = ++i) {
+                    for (int j = 0; j < nX; ++j) {
+                        castRay(j, i, context);
+                    }
                 }
             }
+            frameBuffer.writeToImage(imageWriter);
         } catch (MissingResourceException e) {
             throw new UnsupportedOperationException("Not implemented yet" + e.getClassName());
         }
@@ -382,47 +563,217 @@ public class Camera {
     }
 
     /**
-     * send ray to the pixel and check which color it is
+     * create the settings of a rendering for the ray tracer, from the settings of the camera
+     *
+     * @return the settings of the rendering
+     */
+    private RenderSettings createRenderSettings() {
+        return new RenderSettings.RenderSettingsBuilder()
+                .setSoftShadows(isSoftShadows)
+                .setAdaptiveSoftShadows(isSS)
+                .setAdaptiveDepth(Depth)
+                .setAdaptiveThreshold(adaptiveThreshold)
+                .setSampler(sampler)
+                .setLightSamplesPerSample(samplesPerPixel > 0 ? lightSamplesPerSample : 0)
+                .setRouletteWeight(rouletteWeight)
+                .setSecondaryRayBudget(secondaryRayBudget)
+                .build();
+    }
+
+    /**
+     * create the context of a rendering thread, and keep it for the statistics of the rendering
+     *
+     * @param settings the settings of the rendering
+     * @return the context
+     */
+    private TraceContext createTraceContext(RenderSettings settings) {
+        TraceContext context = new TraceContext(settings);
+        renderContexts.add(context);
+        return context;
+    }
+
+    /**
+     * get the number of rays traced by the last rendering - the rays from the camera,
+     * the reflected and refracted rays and the rays towards the lights
+     *
+     * @return the number of rays
+     */
+    public long getRayCount() {
+        long rays = 0;
+        for (TraceContext context : renderContexts)
+            rays += context.getCameraRays() + context.getSecondaryRays() + context.getShadowRays();
+        return rays;
+    }
+
+    /**
+     * getter for the frame buffer of the last rendering - the colors of its pixels
+     * are kept without the upper limit of 255
+     *
+     * @return the frame buffer, null before the first rendering
+     */
+    public FrameBuffer getFrameBuffer() {
+        return frameBuffer;
+    }
+
+    /**
+     * get the maximal number of rays sent to a pixel, the secondary ray budget of the pixel is split between them
+     *
+     * @return the number of samples of a pixel
+     */
+    private int getPixelSampleCount() {
+        if (samplesPerPixel > 0)
+            return samplesPerPixel;
+        if (isAntiAliasing)
+            // the adaptive grid always traces its 4 corners
+            return isSS ? Math.min(_N * _M, Math.max(4, maxAdaptiveSamples)) : _N * _M;
+        if (isDepthOfFiled)
+            return APERTURE_NUMBER_OF_POINTS;
+        return 1;
+    }
+
+    /**
+     * send rays to the pixel and add the colors they found to the frame buffer
      *
      * @param j first coordinate of the pixel
      * @param i second coordinate of the pixel
-     * @return the color of the pixel
+     * @param context the context of the rendering thread
      */
-    private Color castRay(int j, int i) {
+    private void castRay(int j, int i, TraceContext context) {
+        context.startPixel(pixelKey(j, i), getPixelSampleCount());
         Ray ray = constructRay(imageWriter.getNx(), imageWriter.getNy(), j, i);
+        if (samplesPerPixel > 0) {
+            addPipelineSamples(j, i, ray, createPixelRandom(j, i), context);
+            return;
+        }
         if (isAntiAliasing) {
             if (_N == 0 || _M == 0)
                 throw new MissingResourceException("You need to set the n*m value for the rays launching", RayTracer.class.getName(), "");
 
-            Ray[][] rays = constructRaysGridFromRay(imageWriter.getNx(), imageWriter.getNy(), _N, _M, ray);
             if (!isSS) {
-                Color sum = Color.BLACK;
-                for (Ray[] rayy : rays) {
-                    for (Ray rayyy : rayy)
-                        sum = sum.add(rayTracer.traceRay(rayyy, isSoftShadows, isSS, Depth));
-                }
-                return sum.reduce(_N * _M);
+                addPixelSamples(j, i, ray, createPixelRandom(j, i), context);
+                return;
             }
             else
             {
-                Color lu =rayTracer.traceRay(rays[0][0], isSoftShadows, isSS, Depth);
-                Color ld = rayTracer.traceRay(rays[_N - 1][0], isSoftShadows, isSS, Depth);
-                Color ru = rayTracer.traceRay(rays[0][_M - 1], isSoftShadows, isSS, Depth);
-                Color rd = rayTracer.traceRay(rays[_N - 1][_M - 1], isSoftShadows, isSS, Depth);
-                if (lu.equals(ld) && lu.equals(ru) && lu.equals(rd)) {
-                    return lu;
-                } else {
-                    Color help = helpSuperSampling(rays, lu, ld, ru, rd,
-                            0, 0, _N - 1, _M - 1, Depth);
-                    return help;
-                }
+                Ray[][] rays = constructRaysGridFromRay(imageWriter.getNx(), imageWriter.getNy(), _N, _M, ray,
+                        createPixelRandom(j, i));
+                // the colors of the traced rays of the grid, each ray is traced once
+                Color[][] colors = new Color[_N][_M];
+                int[] samples = {0};
+                Color lu = traceGridRay(rays, colors, 0, 0, samples, context);
+                Color ld = traceGridRay(rays, colors, _N - 1, 0, samples, context);
+                Color ru = traceGridRay(rays, colors, 0, _M - 1, samples, context);
+                Color rd = traceGridRay(rays, colors, _N - 1, _M - 1, samples, context);
+                frameBuffer.addSample(j, i, helpSuperSampling(rays, colors, lu, ld, ru, rd, 0, 0, _N - 1, _M - 1, Depth, samples, context));
+                return;
             }
         }
         if (isDepthOfFiled) {
-            return averagedBeamColor(ray);
+            addBeamSamples(j, i, ray, createPixelRandom(j, i), context);
+            return;
         }
 
-        return rayTracer.traceRay(ray, isSoftShadows, isSS, Depth);
+        frameBuffer.addSample(j, i, renderTracer.traceRay(ray, context));
+    }
+
+    /**
+     * the unified sample pipeline - every sample of the pixel takes a position in the pixel (anti-aliasing),
+     * a position on the aperture (depth of field) and its own light samples (soft shadows).
+     * The sets of the positions are shuffled against each other, so the sample dimensions are not correlated
+     *
+     * @param j       first coordinate of the pixel
+     * @param i       second coordinate of the pixel
+     * @param ray     the ray through the center of the pixel
+     * @param random  the random stream of the pixel
+     * @param context the context of the rendering thread
+     */
+    private void addPipelineSamples(int j, int i, Ray ray, RandomGenerator random, TraceContext context) {
+        int count = samplesPerPixel;
+        Point pc = ray.getPoint(_distance); //center of the pixel
+        double pixelHeight = alignZero(_height / imageWriter.getNy());
+        double pixelWidth = alignZero(_width / imageWriter.getNx());
+        double pixelOffsetU = random.nextDouble(), pixelOffsetV = random.nextDouble();
+        double lensOffsetU = random.nextDouble(), lensOffsetV = random.nextDouble();
+        double lightOffsetU = random.nextDouble(), lightOffsetV = random.nextDouble();
+        int[] lensOrder = shuffledOrder(count, random);
+        int[] lightOrder = shuffledOrder(count, random);
+
+        for (int sample = 0; sample < count; ++sample) {
+            Point pIJ = pc;
+            if (isAntiAliasing) {
+                double xJ = (sampler.getSample(sample, count, 0, pixelOffsetU) - 0.5) * pixelWidth;
+                double yI = (0.5 - sampler.getSample(sample, count, 1, pixelOffsetV)) * pixelHeight;
+                if (!isZero(xJ)) pIJ = pIJ.add(_vRight.scale(xJ));
+                if (!isZero(yI)) pIJ = pIJ.add(_vUp.scale(yI));
+            }
+            Ray sampleRay = new Ray(_p0, pIJ.subtract(_p0));
+
+            if (isDepthOfFiled) {
+                Point focalPoint = findFocalPoint(sampleRay);
+                double x = (2 * sampler.getSample(lensOrder[sample], count, 0, lensOffsetU) - 1) * this.apertureSize;
+                double y = (2 * sampler.getSample(lensOrder[sample], count, 1, lensOffsetV) - 1) * this.apertureSize;
+                Point aperturePoint = this._p0;
+                if (!isZero(x)) aperturePoint = aperturePoint.add(this._vRight.scale(x));
+                if (!isZero(y)) aperturePoint = aperturePoint.add(this._vUp.scale(y));
+                sampleRay = new Ray(aperturePoint, focalPoint.subtract(aperturePoint));
+            }
+
+            context.setPixelSample(lightOrder[sample], count, lightOffsetU, lightOffsetV);
+            frameBuffer.addSample(j, i, renderTracer.traceRay(sampleRay, context));
+        }
+    }
+
+    /**
+     * create a random order of the numbers 0 .. count - 1 (Fisher-Yates shuffle)
+     *
+     * @param count  the number of numbers
+     * @param random the random stream of the pixel
+     * @return the numbers in a random order
+     */
+    private static int[] shuffledOrder(int count, RandomGenerator random) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+
+    /**
+     * add the colors of n * m rays spread over the pixel by the sampler to the pixel
+     *
+     * @param j       first coordinate of the pixel
+     * @param i       second coordinate of the pixel
+     * @param ray     the ray through the center of the pixel
+     * @param random  the random stream of the pixel
+     * @param context the context of the rendering thread
+     */
+    private void addPixelSamples(int j, int i, Ray ray, RandomGenerator random, TraceContext context) {
+        Point pc = ray.getPoint(_distance); //center of the pixel
+        double pixelHeight = alignZero(_height / imageWriter.getNy());
+        double pixelWidth = alignZero(_width / imageWriter.getNx());
+        int count = _N * _M;
+        double offsetU = random.nextDouble(), offsetV = random.nextDouble();
+
+        Ray[] rays = new Ray[count];
+        for (int sample = 0; sample < count; ++sample) {
+            double xJ = (sampler.getSample(sample, count, 0, offsetU) - 0.5) * pixelWidth;
+            double yI = (0.5 - sampler.getSample(sample, count, 1, offsetV)) * pixelHeight;
+            Point pIJ = pc;
+            if (!isZero(xJ)) {
+                pIJ = pIJ.add(_vRight.scale(xJ));
+            }
+            if (!isZero(yI)) {
+                pIJ = pIJ.add(_vUp.scale(yI));
+            }
+            rays[sample] = new Ray(_p0, pIJ.subtract(_p0));
+        }
+        //the rays of the pixel are traced in one batch
+        Color[] colors = new Color[count];
+        renderTracer.traceRays(rays, count, colors, context);
+        for (Color color : colors)
+            frameBuffer.addSample(j, i, color);
     }
 
     /**
@@ -449,9 +800,10 @@ public class Camera {
      * @param n   number of the rays to launch in pixel
      * @param m   number of the ray to launch in the pixel
      * @param ray the ray that it is already launched in the center of the pixel
+     * @param random the random stream of the pixel
      * @return list of rays when every ray is launched inside a pixel with random emplacement
      */
-    public Ray[][] constructRaysGridFromRay(int nX, int nY, int n, int m, Ray ray) {
+    public Ray[][] constructRaysGridFromRay(int nX, int nY, int n, int m, Ray ray, RandomGenerator random) {
 
         Point p0 = ray.getPoint(_distance); //center of the pixel
         Ray[][] myRays = new Ray[n][m]; //to save all the rays
@@ -463,7 +815,7 @@ public class Camera {
 
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < m; j++) {
-                myRays[i][j]=constructRay(m, n, j, i, pixelHeight, pixelHWidth, p0);
+                myRays[i][j]=constructRay(m, n, j, i, pixelHeight, pixelHWidth, p0, random);
             }
         }
 
@@ -481,9 +833,10 @@ public class Camera {
      * @param pixelH height of the pixel
      * @param pixelW width of the pixel
      * @param pc     pixel center
+     * @param random the random stream of the pixel
      * @return the ray through pixel's center
      */
-    private Ray constructRay(int m, int n, double j, double i, double pixelH, double pixelW, Point pc) {
+    private Ray constructRay(int m, int n, double j, double i, double pixelH, double pixelW, Point pc, RandomGenerator random) {
 
         Point pIJ = pc;
 
@@ -493,10 +846,10 @@ public class Camera {
         double rX = pixelW / m;
         //xJ is the value of width we need to move from center to get to the point
         //we get to the bottom/top of the pixel and then we move randomly in the pixel to get the point
-        double xJ = ((j + r.nextDouble() / (r.nextBoolean() ? 2 : -2)) - ((m - 1) / 2d)) * rX;
+        double xJ = ((j + random.nextDouble() / (random.nextBoolean() ? 2 : -2)) - ((m - 1) / 2d)) * rX;
         //yI is the value of height we need to move from center to get to the point
         //we get to the side of the pixel and then we move randomly in the pixel to get the point
-        double yI = -((i + r.nextDouble() / (r.nextBoolean() ? 2 : -2)) - ((n - 1) / 2d)) * rY;
+        double yI = -((i + random.nextDouble() / (random.nextBoolean() ? 2 : -2)) - ((n - 1) / 2d)) * rY;
 
         if (xJ != 0) {
             pIJ = pIJ.add(_vRight.scale(xJ));
@@ -515,28 +868,105 @@ public class Camera {
 
     /**
      * It takes a ray, finds the point where it intersects the focal plane, and then shoots rays from the aperture points
-     * to that point. It then averages the colors of all the rays
+     * to that point. It then adds the colors of all the rays to the pixel.
+     * In adaptive depth of field it shoots a few of the rays first, and shoots the rest only if their colors differ
      *
+     * @param j       first coordinate of the pixel
+     * @param i       second coordinate of the pixel
      * @param ray The ray that is being traced.
-     * @return The average color of the image.
-     */
-    private Color averagedBeamColor(Ray ray) {
-        Color averageColor = Color.BLACK, apertureColor;
-        int numOfPoints = this.aperturePoints.length;
-        Ray apertureRay;
-        Point focalPoint = this.FOCAL_PLANE.findGeoIntersections(ray).get(0).point;
-        for (Point aperturePoint : this.aperturePoints) {
-            apertureRay = new Ray(aperturePoint, focalPoint.subtract(aperturePoint));
-            apertureColor = rayTracer.traceRay(apertureRay, isSoftShadows, isSS, Depth);
-            averageColor = averageColor.add(apertureColor.reduce(numOfPoints));
+     * @param random the random stream of the pixel
+     * @param context the context of the rendering thread
+     */
+    private void addBeamSamples(int j, int i, Ray ray, RandomGenerator random, TraceContext context) {
+        int numOfPoints = this.APERTURE_NUMBER_OF_POINTS;
+        double offsetU = random.nextDouble(), offsetV = random.nextDouble();
+        Point focalPoint = findFocalPoint(ray);
+
+        // the points traced first are spread evenly through the set of all the aperture points,
+        // and they are part of the set - they are not traced again with the rest of the set
+        int initialPoints = isAdaptiveDepthOfFiled ? Math.min(APERTURE_INITIAL_NUMBER_OF_POINTS, numOfPoints) : 0;
+        if (initialPoints > 0) {
+            Color firstColor = traceApertureRay(focalPoint, 0, numOfPoints, offsetU, offsetV, context);
+            boolean isClose = true;
+            frameBuffer.addSample(j, i, firstColor);
+            for (int point = 1; point < initialPoints; point++) {
+                Color apertureColor = traceApertureRay(focalPoint, point * numOfPoints / initialPoints, numOfPoints,
+                        offsetU, offsetV, context);
+                isClose = isClose && firstColor.isClose(adaptiveThreshold, apertureColor);
+                frameBuffer.addSample(j, i, apertureColor);
+            }
+            //all the rays meet the same color - the point is in focus
+            if (isClose)
+                return;
+        }
+
+        //the rest of the rays of the beam are traced in one batch
+        int count = numOfPoints - initialPoints;
+        Ray[] rays = new Ray[count];
+        for (int index = 0, point = 0, next = 0; index < numOfPoints; index++) {
+            if (point < initialPoints && index == point * numOfPoints / initialPoints)
+                ++point;
+            else
+                rays[next++] = constructApertureRay(focalPoint, index, numOfPoints, offsetU, offsetV);
         }
-        return averageColor;
+        Color[] colors = new Color[count];
+        renderTracer.traceRays(rays, count, colors, context);
+        for (Color color : colors)
+            frameBuffer.addSample(j, i, color);
     }
 
     /**
-     * the function helps castRay to get the color with super sampling
+     * find the point where a ray from the camera intersects the focal plane -
+     * the plane is orthogonal to vTo, so the distance along the ray is the focal distance over the cosine
+     *
+     * @param ray a ray from the camera location
+     * @return the point on the focal plane
+     */
+    private Point findFocalPoint(Ray ray) {
+        return ray.getPoint(this.FP_distance / ray.getDir().dotProduct(this._vTo));
+    }
+
+    /**
+     * trace a ray from one point of the aperture to the focal point
+     *
+     * @param focalPoint the point on the focal plane
+     * @param index      the index of the aperture point
+     * @param count      the number of the aperture points
+     * @param offsetU    the offset of the aperture points on the right direction
+     * @param offsetV    the offset of the aperture points on the up direction
+     * @param context    the context of the rendering thread
+     * @return the color of the ray
+     */
+    private Color traceApertureRay(Point focalPoint, int index, int count, double offsetU, double offsetV, TraceContext context) {
+        return renderTracer.traceRay(constructApertureRay(focalPoint, index, count, offsetU, offsetV), context);
+    }
+
+    /**
+     * construct a ray from one point of the aperture to the focal point
+     *
+     * @param focalPoint the point on the focal plane
+     * @param index      the index of the aperture point
+     * @param count      the number of the aperture points
+     * @param offsetU    the offset of the aperture points on the right direction
+     * @param offsetV    the offset of the aperture points on the up direction
+     * @return the ray from the aperture point
+     */
+    private Ray constructApertureRay(Point focalPoint, int index, int count, double offsetU, double offsetV) {
+        //the point of the aperture square spread by the sampler
+        double x = (2 * sampler.getSample(index, count, 0, offsetU) - 1) * this.apertureSize;
+        double y = (2 * sampler.getSample(index, count, 1, offsetV) - 1) * this.apertureSize;
+        Point aperturePoint = this._p0;
+        if (!isZero(x)) aperturePoint = aperturePoint.add(this._vRight.scale(x));
+        if (!isZero(y)) aperturePoint = aperturePoint.add(this._vUp.scale(y));
+        return new Ray(aperturePoint, focalPoint.subtract(aperturePoint));
+    }
+
+    /**
+     * the function helps castRay to get the color with super sampling -
+     * a quarter of the pixel is divided again only if its corner colors differ by more than the threshold
      *
      * @param rays        the matrix of rays from the pixel
+     * @param colors      the colors of the rays traced so far (null for a ray that wasn't traced)
      * @param lu          the left up point
      * @param ld          the left down point
      * @param ru          the right up point
@@ -546,34 +976,44 @@ public class Camera {
      * @param z           index x of right down
      * @param w           index y of right down
      * @param depth       the deep of the recursion
+     * @param samples     counter of the rays traced in the pixel (a single cell)
+     * @param context     the context of the rendering thread
      * @return the color in the pixel
      */
-    private Color helpSuperSampling(Ray[][] rays, Color lu, Color ld, Color ru, Color rd, int x, int y, int z, int w, int depth) {
-        if (depth == 0)
-            return lu;
-        Color col = Color.BLACK;
-        Color mu = rayTracer.traceRay(rays[x][(y + w) / 2], isSoftShadows, isSS, Depth);
-        Color md = rayTracer.traceRay(rays[z][(y + w) / 2], isSoftShadows, isSS, Depth);
-        Color mm = rayTracer.traceRay(rays[(x + z) / 2][(y + w) / 2], isSoftShadows, isSS, Depth);
-        Color lm = rayTracer.traceRay(rays[(x + z) / 2][y], isSoftShadows, isSS, Depth);
-        Color rm = rayTracer.traceRay(rays[(x + z) / 2][w], isSoftShadows, isSS, Depth);
-        if (lu.equals(mu) && lu.equals(mm) && lu.equals(lm))
-            col = col.add(lu);
-        else
-            col = col.add(helpSuperSampling(rays, lu, lm, mu, mm, x, y, (x + z) / 2, (y + w) / 2, depth - 1));
-        if (mu.equals(ru) && mu.equals(mm) && mu.equals(rm))
-            col = col.add(mu);
-        else
-            col = col.add(helpSuperSampling(rays, mu, mm, ru, rm, x, (y + w) / 2, (x + z) / 2, w, depth - 1));
-        if (lm.equals(mm) && lm.equals(ld) && lm.equals(md))
-            col = col.add(lm);
-        else
-            col = col.add(helpSuperSampling(rays, lm, ld, mm, md, (x + z) / 2, y, z, (y + w) / 2, depth - 1));
-        if (mm.equals(rm) && mm.equals(md) && mm.equals(rd))
-            col = col.add(mm);
-        else
-            col = col.add(helpSuperSampling(rays, mm, md, rm, rd, (x + z) / 2, (y + w) / 2, z, w,depth - 1));
-        return col.reduce(4);
+    private Color helpSuperSampling(Ray[][] rays, Color[][] colors, Color lu, Color ld, Color ru, Color rd, int x, int y, int z, int w, int depth, int[] samples, TraceContext context) {
+        // the corners are close enough (and the pixel has its minimal rays), or there are no more rays to trace
+        if (depth == 0 || (z - x < 2 && w - y < 2) || samples[0] + 5 > maxAdaptiveSamples
+                || samples[0] >= minAdaptiveSamples && lu.isClose(adaptiveThreshold, ld, ru, rd))
+            return lu.add(ld, ru, rd).reduce(4);
+        Color mu = traceGridRay(rays, colors, x, (y + w) / 2, samples, context);
+        Color md = traceGridRay(rays, colors, z, (y + w) / 2, samples, context);
+        Color mm = traceGridRay(rays, colors, (x + z) / 2, (y + w) / 2, samples, context);
+        Color lm = traceGridRay(rays, colors, (x + z) / 2, y, samples, context);
+        Color rm = traceGridRay(rays, colors, (x + z) / 2, w, samples, context);
+        return helpSuperSampling(rays, colors, lu, lm, mu, mm, x, y, (x + z) / 2, (y + w) / 2, depth - 1, samples, context).add(
+                helpSuperSampling(rays, colors, mu, mm, ru, rm, x, (y + w) / 2, (x + z) / 2, w, depth - 1, samples, context),
+                helpSuperSampling(rays, colors, lm, ld, mm, md, (x + z) / 2, y, z, (y + w) / 2, depth - 1, samples, context),
+                helpSuperSampling(rays, colors, mm, md, rm, rd, (x + z) / 2, (y + w) / 2, z, w, depth - 1, samples, context)).reduce(4);
+    }
+
+    /**
+     * get the color of a ray of the grid of a pixel - the ray is traced only the first time,
+     * and its color is kept for the neighboring quarters
+     *
+     * @param rays    the matrix of rays from the pixel
+     * @param colors  the colors of the rays traced so far (null for a ray that wasn't traced)
+     * @param row     the row of the ray in the grid
+     * @param column  the column of the ray in the grid
+     * @param samples counter of the rays traced in the pixel (a single cell)
+     * @param context the context of the rendering thread
+     * @return the color of the ray
+     */
+    private Color traceGridRay(Ray[][] rays, Color[][] colors, int row, int column, int[] samples, TraceContext context) {
+        if (colors[row][column] == null) {
+            colors[row][column] = renderTracer.traceRay(rays[row][column], context);
+            ++samples[0];
+        }
+        return colors[row][column];
     }
 
     /**
@@ -597,8 +1037,8 @@ public class Camera {
             return this;
         }
 
-        threadPool = new ThreadPool<Pixel>() // the thread pool choose the number of threads (in0 case threads is 0)
-                .setParamGetter(this::getNextPixel)
+        threadPool = new ThreadPool<Tile>() // the thread pool choose the number of threads (in0 case threads is 0)
+                .setParamGetter(this::getNextTile)
                 .setTarget(this::renderImageMultithreaded);
         if (threads > 0) {
             threadPool.setNumThreads(threads);
@@ -608,62 +1048,82 @@ public class Camera {
     }
 
     /**
-     * Returns the next pixel to draw on multithreaded rendering.
-     * If finished to draw all pixels, returns {@code null}.
+     * Chaining method for setting the size of the tiles handed to the threads on multithreaded rendering.
+     * Smaller tiles balance the work better between the threads, bigger tiles cost less scheduling.
+     *
+     * @param tileSize width and height of a tile in pixels
+     * @return the camera
+     * @throws IllegalArgumentException when tileSize is not positive
      */
-    private synchronized Pixel getNextPixel() {
-
-        // notifies the main thread in order to print the percent
-        notifyAll();
+    public Camera setTileSize(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tile size must be greater than 0");
+        }
 
+        this.tileSize = tileSize;
+        return this;
+    }
 
-        Pixel result = new Pixel();
+    /**
+     * Returns the next tile to draw on multithreaded rendering.
+     * The tiles are taken by an atomic counter, so a thread that finished a tile
+     * takes the next one without locking and the threads stay balanced.
+     * If finished to draw all tiles, returns {@code null}.
+     */
+    private Tile getNextTile() {
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
+        int tilesInRow = (nX + tileSize - 1) / tileSize;
+        int tilesInColumn = (nY + tileSize - 1) / tileSize;
 
-        // updates the row of the next pixel to draw
-        // if got to the end, returns null
-        if (nextPixel.col >= nX) {
-            if (++nextPixel.row >= nY) {
-                return null;
-            }
-            nextPixel.col = 0;
+        int tile = nextTile.getAndIncrement();
+        if (tile >= tilesInRow * tilesInColumn) {
+            return null;
         }
 
-        result.col = nextPixel.col++;
-        result.row = nextPixel.row;
-        return result;
+        int col = tile % tilesInRow * tileSize;
+        int row = tile / tilesInRow * tileSize;
+        return new Tile(col, row, Math.min(col + tileSize, nX), Math.min(row + tileSize, nY));
     }
 
     /**
-     * Renders a given pixel on multithreaded rendering.
-     * If the given pixel is null, returns false which means kill the thread.
+     * Renders a given tile on multithreaded rendering.
+     * If the given tile is null, returns false which means kill the thread.
      *
-     * @param p the pixel to render
+     * @param tile the tile to render
      */
-    private boolean renderImageMultithreaded(Pixel p) {
-        if (p == null) {
+    private boolean renderImageMultithreaded(Tile tile) {
+        if (tile == null) {
             return false; // kill the thread
         }
 
-        int nX = imageWriter.getNx();
-        int nY = imageWriter.getNy();
-        this.imageWriter.writePixel(p.col, p.row, castRay(p.col, p.row));
+        TraceContext context = threadContext.get();
+        for (int i = tile.fromRow; i < tile.toRow; ++i) {
+            for (int j = tile.fromCol; j < tile.toCol; ++j) {
+                castRay(j, i, context);
+            }
+        }
         return true; // continue the rendering
     }
 
     /**
-     * Helper class to represent a pixel to draw in a multithreading rendering.
+     * Helper class to represent a rectangle of pixels to draw in a multithreading rendering.
      */
-    private static class Pixel {
-        public int col, row;
-
-        public Pixel(int col, int row) {
-            this.col = col;
-            this.row = row;
-        }
-
-        public Pixel() {
+    private static class Tile {
+        /**
+         * the first column and row of the tile (included)
+         */
+        final int fromCol, fromRow;
+        /**
+         * the last column and row of the tile (excluded)
+         */
+        final int toCol, toRow;
+
+        Tile(int fromCol, int fromRow, int toCol, int toRow) {
+            this.fromCol = fromCol;
+            this.fromRow = fromRow;
+            this.toCol = toCol;
+            this.toRow = toRow;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+
+/**
+ * FrameBuffer class accumulates the samples of the pixels of an image - every pixel keeps
+ * the running sum of the RGB components of its samples and the number of its samples.
+ * The components are kept without the upper limit of 255 until the image is written,
+ * and adding a sample allocates nothing
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class FrameBuffer {
+    private final int nX;
+    private final int nY;
+    /**
+     * the sums of the samples, 3 components per pixel, row after row
+     */
+    private final double[] sums;
+    /**
+     * the number of samples of every pixel, row after row
+     */
+    private final int[] counts;
+
+    /**
+     * constructor of an empty frame buffer
+     *
+     * @param nX number of pixels in a row
+     * @param nY number of pixels in a column
+     * @throws IllegalArgumentException when the size is not positive
+     */
+    public FrameBuffer(int nX, int nY) {
+        if (nX <= 0 || nY <= 0)
+            throw new IllegalArgumentException("The size of the frame buffer must be positive");
+        this.nX = nX;
+        this.nY = nY;
+        this.sums = new double[3 * nX * nY];
+        this.counts = new int[nX * nY];
+    }
+
+    /**
+     * getter for the number of pixels in a row
+     *
+     * @return the number of pixels in a row
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * getter for the number of pixels in a column
+     *
+     * @return the number of pixels in a column
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * add a sample to a pixel
+     *
+     * @param xIndex the column of the pixel
+     * @param yIndex the row of the pixel
+     * @param color  the color of the sample
+     */
+    public void addSample(int xIndex, int yIndex, Color color) {
+        int pixel = yIndex * nX + xIndex;
+        sums[3 * pixel] += color.getRed();
+        sums[3 * pixel + 1] += color.getGreen();
+        sums[3 * pixel + 2] += color.getBlue();
+        ++counts[pixel];
+    }
+
+    /**
+     * get the number of samples of a pixel
+     *
+     * @param xIndex the column of the pixel
+     * @param yIndex the row of the pixel
+     * @return the number of samples
+     */
+    public int getSampleCount(int xIndex, int yIndex) {
+        return counts[yIndex * nX + xIndex];
+    }
+
+    /**
+     * get the color of a pixel - the average of its samples
+     *
+     * @param xIndex the column of the pixel
+     * @param yIndex the row of the pixel
+     * @return the average color of the samples, black if the pixel has no samples
+     */
+    public Color getColor(int xIndex, int yIndex) {
+        int pixel = yIndex * nX + xIndex;
+        int count = counts[pixel];
+        if (count == 0)
+            return Color.BLACK;
+        return new Color(sums[3 * pixel] / count, sums[3 * pixel + 1] / count, sums[3 * pixel + 2] / count);
+    }
+
+    /**
+     * remove all the samples
+     */
+    public void clear() {
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+    }
+
+    /**
+     * write the colors of the pixels to an image writer of the same size
+     *
+     * @param imageWriter the image writer
+     * @throws IllegalArgumentException when the image writer is not of the size of the frame buffer
+     */
+    public void writeToImage(ImageWriter imageWriter) {
+        if (imageWriter.getNx() != nX || imageWriter.getNy() != nY)
+            throw new IllegalArgumentException("The image writer is not of the size of the frame buffer");
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j)
+                imageWriter.writePixel(j, i, getColor(j, i));
+    }
+}
@@ -0,0 +1,30 @@
+package renderer;
+
+/**
+ * HaltonSampler class is the Halton low discrepancy sequence -
+ * the radical inverse of the index of the sample in base 2 for the first coordinate
+ * and in base 3 for the second coordinate
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class HaltonSampler implements Sampler {
+    @Override
+    public double getSample(int index, int count, int dimension, double offset) {
+        return Sampler.fraction(radicalInverse(index, dimension == 0 ? 2 : 3) + offset);
+    }
+
+    /**
+     * mirror the digits of a number in a base around the decimal point
+     *
+     * @param index the number
+     * @param base  the base
+     * @return the radical inverse, in [0, 1)
+     */
+    private static double radicalInverse(int index, int base) {
+        double result = 0;
+        double digitValue = 1d / base;
+        for (int i = index; i > 0; i /= base, digitValue /= base)
+            result += (i % base) * digitValue;
+        return result;
+    }
+}
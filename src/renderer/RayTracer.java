@@ -20,14 +20,35 @@ public abstract class RayTracer {
         this.scene = scene;
     }
 
+    /**
+     * get the ray tracer for the settings of a rendering - called once before the rendering,
+     * so a tracer can pick an implementation that does not check the settings on every ray
+     * @param settings the settings of the rendering
+     * @return the ray tracer of the rendering (this tracer by default)
+     */
+    public RayTracer specialize(RenderSettings settings) {
+        return this;
+    }
+
     /**
      * Scans the ray and looks for the first point that cuts the ray
      * returns its color if found any point
      * and returns the color background if it doesn't
      * @param ray a ray
-     * @param isSoftShadows is soft shadow
-     * @param isSS is adaptive super sampling
+     * @param context the context of the rendering thread
      * @return the color of the closet point the ray cut
      */
-    public abstract Color traceRay(Ray ray, boolean isSoftShadows, boolean isSS, int depth);
+    public abstract Color traceRay(Ray ray, TraceContext context);
+
+    /**
+     * Scans a few rays, so a tracer can trace them in one batch
+     * @param rays the rays
+     * @param count the number of rays to trace from the beginning of the array
+     * @param colors the array to put the colors of the rays in
+     * @param context the context of the rendering thread
+     */
+    public void traceRays(Ray[] rays, int count, Color[] colors, TraceContext context) {
+        for (int i = 0; i < count; ++i)
+            colors[i] = traceRay(rays[i], context);
+    }
 }
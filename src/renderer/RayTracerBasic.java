@@ -1,6 +1,5 @@
 package renderer;
 
-import geometries.Geometry;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
@@ -22,7 +21,26 @@ public class RayTracerBasic extends RayTracer {
     private static final int MAX_CALC_COLOR_LEVEL = 9;
     private static final double MIN_CALC_COLOR_K = 0.001;
 
-    private static final Double3 INITIAL_K = new Double3(1.0);
+    /**
+     * number of camera rays in a batch of the tracing kernel - the rays of a batch are pushed to one work stack
+     * and their paths are traced one after the other, depth first (the stack is not a wavefront,
+     * the batch only replaces the recursion of a few rays with one loop)
+     */
+    private static final int BATCH_SIZE = 16;
+    /**
+     * size of the work stack of the tracing kernel - a traced ray pushes at most two rays of a lower level,
+     * so a path adds at most one waiting ray for each level
+     */
+    private static final int WORK_STACK_SIZE = BATCH_SIZE + MAX_CALC_COLOR_LEVEL;
+
+    /**
+     * the weight under which a secondary ray plays Russian roulette (0 - no Russian roulette)
+     */
+    private final double rouletteWeight;
+    /**
+     * the maximal number of secondary rays of a pixel
+     */
+    private final int secondaryRayBudget;
 
     /**
      * constructor for Ray tracer basic
@@ -31,6 +49,20 @@ public class RayTracerBasic extends RayTracer {
      */
     public RayTracerBasic(Scene scene) {
         super(scene);
+        this.rouletteWeight = 0;
+        this.secondaryRayBudget = Integer.MAX_VALUE;
+    }
+
+    /**
+     * constructor for Ray tracer basic of a rendering
+     *
+     * @param scene    the scene
+     * @param settings the settings of the rendering
+     */
+    RayTracerBasic(Scene scene, RenderSettings settings) {
+        super(scene);
+        this.rouletteWeight = settings.getRouletteWeight();
+        this.secondaryRayBudget = settings.getSecondaryRayBudget();
     }
 
     /**
@@ -40,8 +72,23 @@ public class RayTracerBasic extends RayTracer {
      * @return the closest point that cuts the ray and null if there is no points
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
-        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+        return scene.getGeometries().findClosestGeoIntersection(ray);
+    }
+
+    /**
+     * get the ray tracer for the settings of a rendering -
+     * this tracer calculates hard shadows only, the soft shadows are calculated by the specialized tracers
+     *
+     * @param settings the settings of the rendering
+     * @return the ray tracer of the rendering
+     */
+    @Override
+    public RayTracer specialize(RenderSettings settings) {
+        if (!settings.isSoftShadows())
+            return new RayTracerBasic(scene, settings);
+        if (settings.isAdaptiveSoftShadows() && settings.getLightSamplesPerSample() == 0)
+            return new AdaptiveSoftShadowRayTracer(scene, settings);
+        return new SoftShadowRayTracer(scene, settings);
     }
 
     /**
@@ -50,124 +97,201 @@ public class RayTracerBasic extends RayTracer {
      * and returns the color background if it doesn't
      *
      * @param ray a ray
-     * @param isSoftShadows is soft shadow
-     * @param isSS is adaptive super sampling
+     * @param context the context of the rendering thread
      * @return the color of the closet point the ray cut
      */
     @Override
-    public Color traceRay(Ray ray, boolean isSoftShadows, boolean isSS, int depth) {
-        GeoPoint closestPoint = findClosestIntersection(ray);
-        if (closestPoint == null)
-            //ray did not intersect any geometrical object
-            return scene.getBackground();
-        return calcColor(closestPoint, ray, isSoftShadows, isSS, depth);
+    public Color traceRay(Ray ray, TraceContext context) {
+        WorkStack stack = context.getWorkStack(WORK_STACK_SIZE, BATCH_SIZE);
+        stack.clearPaths(1);
+        stack.pathBudgets[0] = context.nextSampleBudget(secondaryRayBudget);
+        stack.push(ray, 1, 1, 1, MAX_CALC_COLOR_LEVEL, 0);
+        ++context.cameraRays;
+        tracePaths(stack, context);
+        return getPathColor(stack, 0);
+    }
+
+    /**
+     * find the colors of a few rays - the rays are traced by the tracing kernel in batches of BATCH_SIZE rays
+     *
+     * @param rays    the rays
+     * @param count   the number of rays to trace from the beginning of the array
+     * @param colors  the array to put the colors of the rays in
+     * @param context the context of the rendering thread
+     */
+    @Override
+    public void traceRays(Ray[] rays, int count, Color[] colors, TraceContext context) {
+        WorkStack stack = context.getWorkStack(WORK_STACK_SIZE, BATCH_SIZE);
+        for (int first = 0; first < count; first += BATCH_SIZE) {
+            int paths = Math.min(BATCH_SIZE, count - first);
+            stack.clearPaths(paths);
+            for (int path = 0; path < paths; ++path)
+                stack.pathBudgets[path] = context.nextSampleBudget(secondaryRayBudget);
+            // the first ray is pushed last, so it is traced first
+            for (int path = paths - 1; path >= 0; --path)
+                stack.push(rays[first + path], 1, 1, 1, MAX_CALC_COLOR_LEVEL, path);
+            context.cameraRays += paths;
+            tracePaths(stack, context);
+            for (int path = 0; path < paths; ++path)
+                colors[first + path] = getPathColor(stack, path);
+        }
     }
 
     /**
-     * calculate the color at a specific point
+     * get the color of a traced path
      *
-     * @param closestPoint the point that we calculate its color
-     * @param ray          the ray towards the pixel
-     * @param isSoftShadows is soft shadow
-     * @param isSS is adaptive super sampling
-     * @return the color at this point with the ambient light, local and global effects
+     * @param stack the work stack the path was traced in
+     * @param path  the path
+     * @return the color of the path with the ambient light, or the background if the ray did not cut the scene
      */
-    private Color calcColor(GeoPoint closestPoint, Ray ray, boolean isSoftShadows, Boolean isSS, int depth) {
-        return calcColor(closestPoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, isSoftShadows, isSS, depth)
+    private Color getPathColor(WorkStack stack, int path) {
+        if (!stack.pathHits[path])
+            //ray did not intersect any geometrical object
+            return scene.getBackground();
+        return new Color(stack.pathColors[3 * path], stack.pathColors[3 * path + 1], stack.pathColors[3 * path + 2])
                 .add(scene.getAmbientLight().getIntensity());
     }
 
     /**
-     * calculate the color at a specific point
+     * the tracing kernel - trace the rays of the work stack until it is empty.
+     * The color of a point is its emission and local effects, scaled by the weight of its ray
+     * (the product of kR and kT along the path), and added to the color of its path.
+     * The reflected and refracted rays of the point are pushed instead of traced recursively
      *
-     * @param geoPoint the point that we calculate its color
-     * @param ray      the ray towards the pixel
-     * @param level    the level of the recursion
-     * @param isSoftShadows is soft shadow
-     * @param isSS is adaptive super sampling
-     * @return the color at this point with the local and global effects
+     * @param stack   the work stack with the first rays of the paths
+     * @param context the context of the rendering thread
      */
-    private Color calcColor(GeoPoint geoPoint, Ray ray, int level, Double3 k, boolean isSoftShadows, boolean isSS,int depth) {
-        Color color = geoPoint.geometry.getEmission()
-                .add(calcLocalEffects(geoPoint, ray, k, isSoftShadows, isSS, depth));
-        return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, ray, level, k, isSoftShadows, isSS, depth));
+    private void tracePaths(WorkStack stack, TraceContext context) {
+        while (stack.size > 0) {
+            int top = stack.pop();
+            Ray ray = stack.rays[top];
+            int level = stack.levels[top], path = stack.paths[top];
+            double k1 = stack.weights[3 * top], k2 = stack.weights[3 * top + 1], k3 = stack.weights[3 * top + 2];
+            stack.rays[top] = null;
+
+            GeoPoint geoPoint = findClosestIntersection(ray);
+            if (geoPoint == null)
+                continue;
+            stack.pathHits[path] = true;
+            addLocalEffects(stack, path, geoPoint, ray, k1, k2, k3, context);
+            if (1 != level)
+                pushGlobalEffects(stack, geoPoint, ray, level, k1, k2, k3, path, context);
+        }
     }
 
     /**
-     * calculate the global effects on the color in a point
+     * push the rays of the global effects in a point - the refracted ray and the reflected ray,
+     * unless the weight of the ray is below MIN_CALC_COLOR_K
      *
+     * @param stack        the work stack
      * @param intersection the closet point intersect with the ray
-     * @param ray          the raya from the camera
-     * @param level        the level of the recursion
-     * @param isSoftShadows is soft shadow
-     * @param isSS is adaptive super sampling
-     * @return the global effects color
+     * @param ray          the ray that cut the point
+     * @param level        the level of the ray
+     * @param k1           the weight of the red component of the ray
+     * @param k2           the weight of the green component of the ray
+     * @param k3           the weight of the blue component of the ray
+     * @param path         the path of the ray
+     * @param context      the context of the rendering thread
      */
-    private Color calcGlobalEffects(GeoPoint intersection, Ray ray, int level, Double3 k, boolean isSoftShadows, boolean isSS, int depth) {
+    private void pushGlobalEffects(WorkStack stack, GeoPoint intersection, Ray ray, int level,
+                                   double k1, double k2, double k3, int path, TraceContext context) {
         Point p = intersection.point;
-        Geometry g = intersection.geometry;
-        Vector n = g.getNormal(p);
-        Color color = Color.BLACK;
-        Double3 kr = g.getMaterial().kR, kkr = k.product(kr);
-        if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
-            Ray reflectedRay = constructReflectedRay(p, ray, n);
-            GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
-            if (reflectedPoint != null)
-                color = color.add(calcColor(reflectedPoint, reflectedRay, level - 1, kkr, isSoftShadows, isSS, depth).scale(kr));
-        }
-        Double3 kt = g.getMaterial().kT, kkt = k.product(kt);
-        if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
-            Ray refractedRay = constructRefractedRay(p, ray, n);
-            GeoPoint refractedPoint = findClosestIntersection(refractedRay);
-            if (refractedPoint != null)
-                color = color.add(calcColor(refractedPoint, refractedRay, level - 1, kkt, isSoftShadows, isSS, depth).scale(kt));
+        Vector n = intersection.getNormal();
+        Material material = intersection.geometry.getMaterial();
+        // the refracted ray is pushed first, so the reflected ray is traced first
+        Double3 kt = material.kT;
+        pushSecondaryRay(stack, p, ray, n, false,
+                k1 * kt.getD1(), k2 * kt.getD2(), k3 * kt.getD3(), level - 1, path, context);
+        Double3 kr = material.kR;
+        pushSecondaryRay(stack, p, ray, n, true,
+                k1 * kr.getD1(), k2 * kr.getD2(), k3 * kr.getD3(), level - 1, path, context);
+    }
+
+    /**
+     * push a reflected or refracted ray, unless its weight is below MIN_CALC_COLOR_K,
+     * its path spent its share of the secondary ray budget of the pixel, or the ray lost its Russian roulette.
+     * A ray with a weight under the roulette weight survives in probability of its weight
+     * over the roulette weight, and its weight is divided by this probability,
+     * so the expected color of the pixel stays the same
+     *
+     * @param stack     the work stack
+     * @param p         the point the ray starts from
+     * @param ray       the ray that cut the point
+     * @param n         the normal at the point
+     * @param reflected true for the reflected ray, false for the refracted ray
+     * @param k1        the weight of the red component of the ray
+     * @param k2        the weight of the green component of the ray
+     * @param k3        the weight of the blue component of the ray
+     * @param level     the level of the ray
+     * @param path      the path of the ray
+     * @param context   the context of the rendering thread
+     */
+    private void pushSecondaryRay(WorkStack stack, Point p, Ray ray, Vector n, boolean reflected,
+                                  double k1, double k2, double k3, int level, int path, TraceContext context) {
+        if (k1 < MIN_CALC_COLOR_K && k2 < MIN_CALC_COLOR_K && k3 < MIN_CALC_COLOR_K)
+            return;
+        if (stack.pathBudgets[path] == 0)
+            return;
+        double weight = Math.max(k1, Math.max(k2, k3));
+        if (weight < rouletteWeight) {
+            double survival = weight / rouletteWeight;
+            if (context.nextRouletteDouble() >= survival)
+                return;
+            k1 /= survival;
+            k2 /= survival;
+            k3 /= survival;
         }
-        return color;
+        Ray secondaryRay = reflected ? constructReflectedRay(p, ray, n) : constructRefractedRay(p, ray, n);
+        if (secondaryRay == null)
+            return;
+        ++context.secondaryRays;
+        --stack.pathBudgets[path];
+        stack.push(secondaryRay, k1, k2, k3, level, path);
     }
 
     /**
-     * calculated light contribution from all light sources
+     * add the emission and the light contribution of all the light sources at a point to the color of its path,
+     * scaled by the weight of the ray. The contributions are summed in primitive doubles,
+     * and the weight of the ray reaches the light calculations through the context
      *
+     * @param stack    the work stack
+     * @param path     the path of the ray
      * @param geoPoint the geo point we calculate the color of
      * @param ray      ray from the camera to the point
-     * @param isSoftShadows is soft shadow
-     * @param isSS is adaptive super sampling
-     * @return the color from the lights at the point
+     * @param k1       the weight of the red component of the ray
+     * @param k2       the weight of the green component of the ray
+     * @param k3       the weight of the blue component of the ray
+     * @param context  the context of the rendering thread
      */
-    private Color calcLocalEffects(GeoPoint geoPoint, Ray ray, Double3 k, boolean isSoftShadows, boolean isSS, int depth) {
-        Color color = Color.BLACK;
-
+    private void addLocalEffects(WorkStack stack, int path, GeoPoint geoPoint, Ray ray,
+                                 double k1, double k2, double k3, TraceContext context) {
+        context.setRayWeight(k1, k2, k3);
+        double red = 0, green = 0, blue = 0;
         //get color given by every light source
-
         for (LightSource lightSource : scene.lights) {
-            if (isSoftShadows) {
-                Color color1 = new Color(0, 0, 0);
-                if (!isSS) {
-                    for (Vector[] ls : lightSource.getListL(geoPoint.point))
-                        for (Vector l : ls) {
-                            color1 = getColor(geoPoint, k, lightSource, color1, l, ray);
-                        }
-                    color = color.add(color1.reduce(Math.pow(lightSource.getListL(geoPoint.point).length, 2)));
-                } else {
-                    Vector[][] lss = lightSource.getListL(geoPoint.point);
-                    Color lu = getColor(geoPoint, k, lightSource, color1, lss[0][0], ray);
-                    Color ld = getColor(geoPoint, k, lightSource, color1, lss[lss.length - 1][0], ray);
-                    Color ru = getColor(geoPoint, k, lightSource, color1, lss[0][lss.length - 1], ray);
-                    Color rd = getColor(geoPoint, k, lightSource, color1, lss[lss.length - 1][lss.length - 1], ray);
-                    if (lu.equals(ld) && lu.equals(ru) && lu.equals(rd)) {
-                        color = color.add(lu);
-                    } else {
-                        Color help = helpSuperSampling(lss, lu, ld, ru, rd,
-                                0, 0, lss.length - 1, lss.length - 1, geoPoint, ray, k, lightSource, depth);
-                        color = color.add(help);
-                    }
-                }
-            } else {
-                Vector l = lightSource.getL(geoPoint.point);
-                color = getColor(geoPoint, k, lightSource, color, l, ray);
-            }
+            Color color = calcLightEffects(geoPoint, ray, lightSource, context);
+            red += color.getRed();
+            green += color.getGreen();
+            blue += color.getBlue();
         }
-        return color;
+        Color emission = geoPoint.geometry.getEmission();
+        stack.pathColors[3 * path] += k1 * (emission.getRed() + red);
+        stack.pathColors[3 * path + 1] += k2 * (emission.getGreen() + green);
+        stack.pathColors[3 * path + 2] += k3 * (emission.getBlue() + blue);
+    }
+
+    /**
+     * calculate the light contribution of one light source - hard shadows, the light comes from its center only
+     *
+     * @param geoPoint    the geo point we calculate the color of
+     * @param ray         ray from the camera to the point
+     * @param lightSource the light source
+     * @param context     the context of the rendering thread
+     * @return the contribution of the light source
+     */
+    protected Color calcLightEffects(GeoPoint geoPoint, Ray ray, LightSource lightSource, TraceContext context) {
+        Vector l = lightSource.getL(geoPoint.point);
+        return getColor(geoPoint, lightSource, Color.BLACK, l, ray, context);
     }
 
     /**
@@ -178,11 +302,12 @@ public class RayTracerBasic extends RayTracer {
      * @param color1      color of the pixel
      * @param l           direction from light to point
      * @param ray         from the camera to the point
+     * @param context     the context of the rendering thread
      * @return color of the pixel
      */
-    private Color getColor(GeoPoint geoPoint, Double3 k, LightSource lightSource, Color color1, Vector l, Ray ray) {
+    protected Color getColor(GeoPoint geoPoint, LightSource lightSource, Color color1, Vector l, Ray ray, TraceContext context) {
         Vector v = ray.getDir();
-        Vector n = geoPoint.geometry.getNormal(geoPoint.point);
+        Vector n = geoPoint.getNormal();
         double nv = alignZero(n.dotProduct(v));
         if (nv == 0) return Color.BLACK;
         int nShininess = geoPoint.geometry.getMaterial().shininess;
@@ -192,8 +317,9 @@ public class RayTracerBasic extends RayTracer {
 
         if (nl * nv > 0) { // sign(nl) == sign(nv)
             //get transparency of the object
-            Double3 ktr = transparency(geoPoint, lightSource, l, n);
-            if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) { //check if the depth of calculation was reached then don't calculate any more
+            Double3 ktr = transparency(geoPoint, lightSource, l, n, context);
+            //check if the depth of calculation was reached then don't calculate any more
+            if (!context.isRayWeightLowerThan(ktr, MIN_CALC_COLOR_K)) {
                 // color is scaled by transparency to get the right color effect
                 Color lightIntensity = lightSource.getIntensity(geoPoint.point).scale(ktr);
                 //get effects of the color and add them to the color
@@ -204,56 +330,6 @@ public class RayTracerBasic extends RayTracer {
         return color1;
     }
 
-    /**
-     * the function helps calcLocalEffects to get the color with super sampling
-     *
-     * @param lss         the matrix of rays from the light
-     * @param lu          the left up point
-     * @param ld          the left down point
-     * @param ru          the right up point
-     * @param rd          the right down point
-     * @param x           index x of left up
-     * @param y           index y of left up
-     * @param z           index x of right down
-     * @param w           index y of right down
-     * @param geoPoint    the geo point we calculate the color of
-     * @param ray         ray from the camera to the point
-     * @param lightSource the current light source
-     * @param depth       the deep of the recursion
-     * @return the color from the lights at the point
-     */
-    private Color helpSuperSampling(Vector[][] lss, Color lu, Color ld, Color ru, Color rd, int x, int y, int z, int w, GeoPoint geoPoint, Ray ray, Double3 k, LightSource lightSource, int depth) {
-        if (depth == 0)
-            return lu;
-        Color col = Color.BLACK;
-        Color mu = getColor(geoPoint, k, lightSource, Color.BLACK, lss[x][(y + w) / 2], ray);
-        Color md = getColor(geoPoint, k, lightSource, Color.BLACK, lss[z][(y + w) / 2], ray);
-        Color mm = getColor(geoPoint, k, lightSource, Color.BLACK, lss[(x + z) / 2][(y + w) / 2], ray);
-        Color lm = getColor(geoPoint, k, lightSource, Color.BLACK, lss[(x + z) / 2][y], ray);
-        Color rm = getColor(geoPoint, k, lightSource, Color.BLACK, lss[(x + z) / 2][w], ray);
-        if (lu.equals(mu) && lu.equals(mm) && lu.equals(lm))
-            col = col.add(lu);
-        else
-            col = col.add(helpSuperSampling(lss, lu, lm, mu, mm, x, y, (x + z) / 2, (y + w) / 2,
-                    geoPoint, ray, k, lightSource, depth - 1));
-        if (mu.equals(ru) && mu.equals(mm) && mu.equals(rm))
-            col = col.add(mu);
-        else
-            col = col.add(helpSuperSampling(lss, mu, mm, ru, rm, x, (y + w) / 2, (x + z) / 2, w,
-                    geoPoint, ray, k, lightSource, depth - 1));
-        if (lm.equals(mm) && lm.equals(ld) && lm.equals(md))
-            col = col.add(lm);
-        else
-            col = col.add(helpSuperSampling(lss, lm, ld, mm, md, (x + z) / 2, y, z, (y + w) / 2,
-                    geoPoint, ray, k, lightSource, depth - 1));
-        if (mm.equals(rm) && mm.equals(md) && mm.equals(rd))
-            col = col.add(mm);
-        else
-            col = col.add(helpSuperSampling(lss, mm, md, rm, rd, (x + z) / 2, (y + w) / 2, z, w,
-                    geoPoint, ray, k, lightSource, depth - 1));
-        return col.reduce(4);
-    }
-
     /**
      * Calculate the Specular component of the light at this point
      *
@@ -315,23 +391,15 @@ public class RayTracerBasic extends RayTracer {
      * @param light the light source
      * @param l     direction from light to point
      * @param n     normal from the object at the point
+     * @param context the context of the rendering thread
      * @return the shadow level on the spot
      */
-    private Double3 transparency(GeoPoint gp, LightSource light, Vector l, Vector n) {
+    private Double3 transparency(GeoPoint gp, LightSource light, Vector l, Vector n, TraceContext context) {
+        ++context.shadowRays;
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray lightRay = new Ray(gp.point, lightDirection, n);
-        List<GeoPoint> intersections = scene.getGeometries()
-                .findGeoIntersections(lightRay, light.getDistance(gp.point));
-        Double3 ktr = new Double3(1.0);
-        if (intersections == null)
-            return ktr;
-
-        for (GeoPoint geoP : intersections) {
-            ktr = ktr.product(geoP.geometry.getMaterial().kT);
-            if (ktr.lowerThan(MIN_CALC_COLOR_K))
-                return new Double3(0.0);
-        }
-        return ktr;
+        return scene.getGeometries()
+                .findTransparency(lightRay, light.getDistance(gp.point), MIN_CALC_COLOR_K);
     }
 
     /**
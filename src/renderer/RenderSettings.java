@@ -0,0 +1,231 @@
+package renderer;
+
+/**
+ * RenderSettings class holds the settings of one rendering that the ray tracer needs -
+ * the settings are fixed for the whole rendering, so the tracer is specialized for them once
+ * instead of checking them on every ray
+ *
+ * @author Michal Superfine & Evgi
+ */
+public final class RenderSettings {
+    private final boolean softShadows;
+    private final boolean adaptiveSoftShadows;
+    private final int adaptiveDepth;
+    private final double adaptiveThreshold;
+    private final Sampler sampler;
+    private final int lightSamplesPerSample;
+    private final double rouletteWeight;
+    private final int secondaryRayBudget;
+
+    /**
+     * constructor of the settings from the builder
+     *
+     * @param builder the builder of the settings
+     */
+    private RenderSettings(RenderSettingsBuilder builder) {
+        this.softShadows = builder.softShadows;
+        this.adaptiveSoftShadows = builder.adaptiveSoftShadows;
+        this.adaptiveDepth = builder.adaptiveDepth;
+        this.adaptiveThreshold = builder.adaptiveThreshold;
+        this.sampler = builder.sampler;
+        this.lightSamplesPerSample = builder.lightSamplesPerSample;
+        this.rouletteWeight = builder.rouletteWeight;
+        this.secondaryRayBudget = builder.secondaryRayBudget;
+    }
+
+    /**
+     * getter for soft shadows
+     *
+     * @return true if the area lights are sampled, false for hard shadows
+     */
+    public boolean isSoftShadows() {
+        return softShadows;
+    }
+
+    /**
+     * getter for adaptive soft shadows
+     *
+     * @return true if the samples of the area lights are divided adaptively
+     */
+    public boolean isAdaptiveSoftShadows() {
+        return adaptiveSoftShadows;
+    }
+
+    /**
+     * getter for the depth of the adaptive sampling's recursion
+     *
+     * @return the depth
+     */
+    public int getAdaptiveDepth() {
+        return adaptiveDepth;
+    }
+
+    /**
+     * getter for the threshold of the adaptive sampling
+     *
+     * @return the color difference (in 8-bit output units) under which the sampling stops dividing
+     */
+    public double getAdaptiveThreshold() {
+        return adaptiveThreshold;
+    }
+
+    /**
+     * getter for the sampler of the area lights
+     *
+     * @return the sampler
+     */
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * getter for the number of light samples of every sample of a pixel
+     *
+     * @return the number of light samples, 0 when every light is sampled by its own sample count
+     */
+    public int getLightSamplesPerSample() {
+        return lightSamplesPerSample;
+    }
+
+    /**
+     * getter for the weight under which the secondary rays play Russian roulette
+     *
+     * @return the weight, 0 when there is no Russian roulette
+     */
+    public double getRouletteWeight() {
+        return rouletteWeight;
+    }
+
+    /**
+     * getter for the maximal number of secondary rays of a pixel
+     *
+     * @return the number of reflected and refracted rays a pixel may trace
+     */
+    public int getSecondaryRayBudget() {
+        return secondaryRayBudget;
+    }
+
+    /**
+     * Builder Class for RenderSettings
+     */
+    public static class RenderSettingsBuilder {
+        private boolean softShadows = false;
+        private boolean adaptiveSoftShadows = false;
+        private int adaptiveDepth = 3;
+        private double adaptiveThreshold = 1;
+        private Sampler sampler = new StratifiedSampler();
+        private int lightSamplesPerSample = 0;
+        private double rouletteWeight = 0;
+        private int secondaryRayBudget = Integer.MAX_VALUE;
+
+        //chaining method
+
+        /**
+         * setter for soft shadows
+         *
+         * @param softShadows true to sample the area lights
+         * @return this builder
+         */
+        public RenderSettingsBuilder setSoftShadows(boolean softShadows) {
+            this.softShadows = softShadows;
+            return this;
+        }
+
+        /**
+         * setter for adaptive soft shadows
+         *
+         * @param adaptiveSoftShadows true to divide the samples of the area lights adaptively
+         * @return this builder
+         */
+        public RenderSettingsBuilder setAdaptiveSoftShadows(boolean adaptiveSoftShadows) {
+            this.adaptiveSoftShadows = adaptiveSoftShadows;
+            return this;
+        }
+
+        /**
+         * setter for the depth of the adaptive sampling's recursion
+         *
+         * @param adaptiveDepth the depth
+         * @return this builder
+         */
+        public RenderSettingsBuilder setAdaptiveDepth(int adaptiveDepth) {
+            this.adaptiveDepth = adaptiveDepth;
+            return this;
+        }
+
+        /**
+         * setter for the threshold of the adaptive sampling
+         *
+         * @param adaptiveThreshold the color difference (in 8-bit output units) under which the sampling stops
+         * @return this builder
+         */
+        public RenderSettingsBuilder setAdaptiveThreshold(double adaptiveThreshold) {
+            this.adaptiveThreshold = adaptiveThreshold;
+            return this;
+        }
+
+        /**
+         * setter for the sampler of the area lights
+         *
+         * @param sampler the sampler
+         * @return this builder
+         */
+        public RenderSettingsBuilder setSampler(Sampler sampler) {
+            this.sampler = sampler;
+            return this;
+        }
+
+        /**
+         * setter for the number of light samples of every sample of a pixel
+         *
+         * @param lightSamplesPerSample the number of light samples, 0 to sample every light by its own sample count
+         * @return this builder
+         */
+        public RenderSettingsBuilder setLightSamplesPerSample(int lightSamplesPerSample) {
+            this.lightSamplesPerSample = lightSamplesPerSample;
+            return this;
+        }
+
+        /**
+         * setter for the weight under which the secondary rays play Russian roulette
+         *
+         * @param rouletteWeight the weight, 0 for no Russian roulette
+         * @return this builder
+         */
+        public RenderSettingsBuilder setRouletteWeight(double rouletteWeight) {
+            this.rouletteWeight = rouletteWeight;
+            return this;
+        }
+
+        /**
+         * setter for the maximal number of secondary rays of a pixel
+         *
+         * @param secondaryRayBudget the number of reflected and refracted rays a pixel may trace
+         * @return this builder
+         */
+        public RenderSettingsBuilder setSecondaryRayBudget(int secondaryRayBudget) {
+            this.secondaryRayBudget = secondaryRayBudget;
+            return this;
+        }
+
+        /**
+         * build the settings
+         *
+         * @return the settings of the rendering
+         * @throws IllegalArgumentException when the adaptive depth or the number of light samples is negative,
+         *                                  the roulette weight is not in [0, 1), or the secondary ray budget
+         *                                  is not positive
+         */
+        public RenderSettings build() {
+            if (adaptiveDepth < 0)
+                throw new IllegalArgumentException("The adaptive depth must not be negative");
+            if (lightSamplesPerSample < 0)
+                throw new IllegalArgumentException("The number of light samples must not be negative");
+            if (rouletteWeight < 0 || rouletteWeight >= 1)
+                throw new IllegalArgumentException("The roulette weight must be in [0, 1)");
+            if (secondaryRayBudget <= 0)
+                throw new IllegalArgumentException("The secondary ray budget must be positive");
+            return new RenderSettings(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package renderer;
+
+/**
+ * Sampler interface is a set of sample points in the unit square [0, 1) x [0, 1),
+ * used to spread the rays of anti-aliasing, depth of field and soft shadows.
+ * The samples are calculated one by one, so no sample list is built
+ *
+ * @author Michal Superfine & Evgi
+ */
+public interface Sampler {
+    /**
+     * calculate one coordinate of a sample of a set.
+     * The offset randomizes the set (Cranley-Patterson rotation) - the same offset must be used
+     * for all the samples of a set, a different offset for every set (e.g. for every pixel),
+     * and 0 for a fixed set
+     *
+     * @param index     the index of the sample in the set, 0 &lt;= index &lt; count
+     * @param count     the number of samples in the set
+     * @param dimension 0 for the first coordinate, 1 for the second coordinate
+     * @param offset    the offset of the set on this dimension, in [0, 1)
+     * @return the coordinate, in [0, 1)
+     */
+    double getSample(int index, int count, int dimension, double offset);
+
+    /**
+     * the fraction part of a number - wraps a coordinate back into [0, 1)
+     *
+     * @param x the number
+     * @return the fraction part of the number
+     */
+    static double fraction(double x) {
+        return x - Math.floor(x);
+    }
+}
@@ -0,0 +1,23 @@
+package renderer;
+
+/**
+ * SobolSampler class is the two dimensional Sobol low discrepancy sequence (the (0,2)-sequence in base 2) -
+ * every power of two samples has one sample in every elementary interval of the unit square
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class SobolSampler implements Sampler {
+    @Override
+    public double getSample(int index, int count, int dimension, double offset) {
+        int bits;
+        if (dimension == 0)
+            bits = Integer.reverse(index);
+        else {
+            bits = 0;
+            for (int v = 1 << 31; index != 0; index >>>= 1, v ^= v >>> 1)
+                if ((index & 1) != 0)
+                    bits ^= v;
+        }
+        return Sampler.fraction((bits & 0xffffffffL) * 0x1p-32 + offset);
+    }
+}
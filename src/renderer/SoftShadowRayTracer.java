@@ -0,0 +1,59 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * SoftShadowRayTracer class is the ray tracer of soft shadows - the light of every light source
+ * comes from samples spread on the light by the sampler.
+ * In the unified sample pipeline of the camera every sample of the pixel takes its own light samples
+ * out of the light sample set of the whole pixel
+ *
+ * @author Michal Superfine & Evgi
+ */
+class SoftShadowRayTracer extends RayTracerBasic {
+    private final Sampler sampler;
+    /**
+     * number of light samples of every sample of a pixel, 0 when every light is sampled by its own sample count
+     */
+    private final int lightSamples;
+
+    /**
+     * constructor of the soft shadows ray tracer
+     *
+     * @param scene    the scene
+     * @param settings the settings of the rendering
+     */
+    SoftShadowRayTracer(Scene scene, RenderSettings settings) {
+        super(scene, settings);
+        this.sampler = settings.getSampler();
+        this.lightSamples = settings.getLightSamplesPerSample();
+    }
+
+    /**
+     * calculate the light contribution of one light source - the average of the samples of the light
+     * that belong to the current sample of the pixel
+     *
+     * @param geoPoint    the geo point we calculate the color of
+     * @param ray         ray from the camera to the point
+     * @param lightSource the light source
+     * @param context     the context of the rendering thread
+     * @return the contribution of the light source
+     */
+    @Override
+    protected Color calcLightEffects(GeoPoint geoPoint, Ray ray, LightSource lightSource, TraceContext context) {
+        int count = lightSamples > 0 ? lightSamples : lightSource.getSampleCount();
+        int total = context.sampleCount * count;
+        Color color1 = Color.BLACK;
+        for (int i = context.sampleIndex * count; i < (context.sampleIndex + 1) * count; ++i) {
+            Vector l = lightSource.getL(geoPoint.point,
+                    sampler.getSample(i, total, 0, context.lightOffsetU), sampler.getSample(i, total, 1, context.lightOffsetV));
+            color1 = getColor(geoPoint, lightSource, color1, l, ray, context);
+        }
+        return color1.reduce(count);
+    }
+}
@@ -0,0 +1,38 @@
+package renderer;
+
+/**
+ * StratifiedSampler class divides the unit square to a grid of cells, one sample in every cell,
+ * at a position in the cell that depends on the index of the sample and the offset of the set
+ * (jittered stratified sampling). The grid has exactly as many cells as samples - its rows are
+ * the biggest divisor of the number of samples up to its square root, so no cell is left empty
+ *
+ * @author Michal Superfine & Evgi
+ */
+public class StratifiedSampler implements Sampler {
+    @Override
+    public double getSample(int index, int count, int dimension, double offset) {
+        int rows = (int) Math.sqrt(count);
+        while (count % rows != 0)
+            --rows;
+        int columns = count / rows;
+        int cell = dimension == 0 ? index % columns : index / columns;
+        int cells = dimension == 0 ? columns : rows;
+        return (cell + Sampler.fraction(offset + jitter(index, dimension))) / cells;
+    }
+
+    /**
+     * the position of a sample in its cell (before the offset of the set) -
+     * a hash of the index of the sample, so the cells are jittered independently
+     *
+     * @param index     the index of the sample
+     * @param dimension the coordinate
+     * @return the position in the cell, in [0, 1)
+     */
+    private static double jitter(int index, int dimension) {
+        long z = (2L * index + dimension) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1p-53;
+    }
+}
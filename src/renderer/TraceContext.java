@@ -0,0 +1,211 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Double3;
+
+import java.util.Arrays;
+
+/**
+ * TraceContext class is the state of one rendering thread that goes with every ray it traces -
+ * the settings of the rendering, the light samples of the current sample of the pixel,
+ * scratch buffers that are reused instead of allocated on every point, and counters of the traced rays.
+ * A context belongs to one thread and must not be shared
+ *
+ * @author Michal Superfine & Evgi
+ */
+public final class TraceContext {
+    private final RenderSettings settings;
+
+    /**
+     * the light samples of the current sample of the pixel - the sample takes the light samples
+     * of its index out of the light sample set of all the samples of the pixel
+     */
+    int sampleIndex = 0;
+    int sampleCount = 1;
+    double lightOffsetU = 0;
+    double lightOffsetV = 0;
+
+    /**
+     * the weight of the ray whose point is colored (the product of kR and kT along its path)
+     */
+    private double rayWeight1 = 1, rayWeight2 = 1, rayWeight3 = 1;
+
+    /**
+     * the colors of the samples of a light grid calculated so far, reused by every point
+     */
+    private Color[][] lightGrid = new Color[0][0];
+
+    /**
+     * the work stack of the tracing kernel, created by the first traced ray
+     */
+    private WorkStack workStack = null;
+
+    /**
+     * counters of the rays traced by the thread
+     */
+    long cameraRays = 0;
+    long secondaryRays = 0;
+    long shadowRays = 0;
+
+    /**
+     * the number of samples of the current pixel, the number of its camera rays traced so far,
+     * and the state of its Russian roulette random stream
+     */
+    private int pixelSamples = 1;
+    private int pixelCameraRays = 0;
+    private long rouletteState = 0;
+
+    /**
+     * constructor of the context of a rendering thread
+     *
+     * @param settings the settings of the rendering
+     */
+    public TraceContext(RenderSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * getter for the settings of the rendering
+     *
+     * @return the settings
+     */
+    public RenderSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * set the light samples of the next traced rays to the ones of a sample of the pixel
+     *
+     * @param index   the index of the sample of the pixel
+     * @param count   the number of samples of the pixel
+     * @param offsetU the offset of the light samples of the pixel on the first coordinate
+     * @param offsetV the offset of the light samples of the pixel on the second coordinate
+     * @return the context
+     */
+    public TraceContext setPixelSample(int index, int count, double offsetU, double offsetV) {
+        this.sampleIndex = index;
+        this.sampleCount = count;
+        this.lightOffsetU = offsetU;
+        this.lightOffsetV = offsetV;
+        return this;
+    }
+
+    /**
+     * set the weight of the ray whose point is colored
+     *
+     * @param k1 the weight of the red component of the ray
+     * @param k2 the weight of the green component of the ray
+     * @param k3 the weight of the blue component of the ray
+     */
+    void setRayWeight(double k1, double k2, double k3) {
+        this.rayWeight1 = k1;
+        this.rayWeight2 = k2;
+        this.rayWeight3 = k3;
+    }
+
+    /**
+     * check whether the weight of the ray multiplied by an attenuation is lower than a number in all the components
+     *
+     * @param k     the attenuation
+     * @param limit the number
+     * @return true if all the components of the product are lower than the number
+     */
+    boolean isRayWeightLowerThan(Double3 k, double limit) {
+        return k.getD1() * rayWeight1 < limit && k.getD2() * rayWeight2 < limit && k.getD3() * rayWeight3 < limit;
+    }
+
+    /**
+     * start a new pixel - reset its count of camera rays and its Russian roulette random stream
+     *
+     * @param key     the key of the pixel, the same key gives the same random stream
+     * @param samples the (maximal) number of camera rays of the pixel, its budget of secondary rays is split between them
+     * @return the context
+     */
+    public TraceContext startPixel(long key, int samples) {
+        this.pixelSamples = Math.max(1, samples);
+        this.pixelCameraRays = 0;
+        // apart from the random stream of the pixel that the camera creates from the same key
+        this.rouletteState = Long.rotateLeft(key, 29) ^ 0x2545F4914F6CDD1DL;
+        return this;
+    }
+
+    /**
+     * get the share of the next camera ray of the pixel in the budget of secondary rays of the pixel -
+     * the budget is split evenly between the samples of the pixel, the first samples get the remainder
+     *
+     * @param budget the maximal number of secondary rays of the pixel
+     * @return the maximal number of secondary rays of the camera ray
+     */
+    int nextSampleBudget(int budget) {
+        int index = pixelCameraRays++ % pixelSamples;
+        return budget / pixelSamples + (index < budget % pixelSamples ? 1 : 0);
+    }
+
+    /**
+     * get the next number of the Russian roulette random stream of the pixel (splitmix64)
+     *
+     * @return a number in [0, 1)
+     */
+    double nextRouletteDouble() {
+        long z = (rouletteState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return ((z ^ (z >>> 31)) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * get an empty grid for the colors of the samples of a light
+     *
+     * @param side the number of cells in a row (and column) of the grid
+     * @return the grid, at least side x side, with no colors in its first side x side cells
+     */
+    Color[][] getLightGrid(int side) {
+        if (lightGrid.length < side)
+            lightGrid = new Color[side][side];
+        else
+            for (int row = 0; row < side; ++row)
+                Arrays.fill(lightGrid[row], 0, side, null);
+        return lightGrid;
+    }
+
+    /**
+     * get the work stack of the tracing kernel
+     *
+     * @param capacity the maximal number of rays in the stack
+     * @param paths    the maximal number of paths in a batch
+     * @return the work stack, empty
+     */
+    WorkStack getWorkStack(int capacity, int paths) {
+        if (workStack == null || workStack.rays.length < capacity || workStack.pathHits.length < paths)
+            workStack = new WorkStack(capacity, paths);
+        workStack.size = 0;
+        return workStack;
+    }
+
+    /**
+     * getter for the number of rays traced from the camera
+     *
+     * @return the number of camera rays
+     */
+    public long getCameraRays() {
+        return cameraRays;
+    }
+
+    /**
+     * getter for the number of reflected and refracted rays
+     *
+     * @return the number of secondary rays
+     */
+    public long getSecondaryRays() {
+        return secondaryRays;
+    }
+
+    /**
+     * getter for the number of rays towards the lights
+     *
+     * @return the number of shadow rays
+     */
+    public long getShadowRays() {
+        return shadowRays;
+    }
+}
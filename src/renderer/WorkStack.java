@@ -0,0 +1,90 @@
+package renderer;
+
+import primitives.Ray;
+
+import java.util.Arrays;
+
+/**
+ * WorkStack class is the fixed-size stack of rays waiting to be traced by the tracing kernel,
+ * with the weight (the attenuation accumulated along the path), the level and the path of every ray,
+ * and the accumulated color of every path of the batch. The entries are kept in primitive arrays,
+ * so the paths are traced without recursion and without a weight object for every stacked ray
+ *
+ * @author Michal Superfine & Evgi
+ */
+final class WorkStack {
+    /**
+     * the entries of the stack
+     */
+    final Ray[] rays;
+    final double[] weights;
+    final int[] levels;
+    final int[] paths;
+    int size = 0;
+
+    /**
+     * the accumulated color of every path of the batch (3 components per path),
+     * whether the first ray of the path hit the scene, and the number of secondary rays the path may still trace
+     */
+    final double[] pathColors;
+    final boolean[] pathHits;
+    final int[] pathBudgets;
+
+    /**
+     * constructor of an empty stack
+     *
+     * @param capacity the maximal number of rays in the stack
+     * @param paths    the maximal number of paths in a batch
+     */
+    WorkStack(int capacity, int paths) {
+        this.rays = new Ray[capacity];
+        this.weights = new double[3 * capacity];
+        this.levels = new int[capacity];
+        this.paths = new int[capacity];
+        this.pathColors = new double[3 * paths];
+        this.pathHits = new boolean[paths];
+        this.pathBudgets = new int[paths];
+    }
+
+    /**
+     * push a ray to the stack
+     *
+     * @param ray   the ray
+     * @param k1    the weight of the red component
+     * @param k2    the weight of the green component
+     * @param k3    the weight of the blue component
+     * @param level the level of the ray, counted down from the camera ray
+     * @param path  the path of the ray
+     * @throws IllegalStateException when the stack is full
+     */
+    void push(Ray ray, double k1, double k2, double k3, int level, int path) {
+        if (size == rays.length)
+            throw new IllegalStateException("The work stack is full");
+        rays[size] = ray;
+        weights[3 * size] = k1;
+        weights[3 * size + 1] = k2;
+        weights[3 * size + 2] = k3;
+        levels[size] = level;
+        paths[size] = path;
+        ++size;
+    }
+
+    /**
+     * pop the top ray of the stack - its entry stays valid until the next push
+     *
+     * @return the index of the entry of the ray
+     */
+    int pop() {
+        return --size;
+    }
+
+    /**
+     * clear the accumulated colors of the paths
+     *
+     * @param count the number of paths to clear
+     */
+    void clearPaths(int count) {
+        Arrays.fill(pathColors, 0, 3 * count, 0);
+        Arrays.fill(pathHits, 0, count, false);
+    }
+}
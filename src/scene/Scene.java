@@ -1,6 +1,7 @@
 package scene;
 
 import geometries.Geometries;
+import geometries.HierarchyBuilder;
 import lighting.AmbientLight;
 import lighting.LightSource;
 import primitives.Color;
@@ -27,6 +28,8 @@ public class Scene {
         ambientLight = builder.ambientLight;
         geometries = builder.geometries;
         lights= builder.lights;
+        if (builder.hierarchyBuilder != null)
+            geometries.setHierarchyBuilder(builder.hierarchyBuilder);
     }
 
     /**
@@ -78,6 +81,7 @@ public class Scene {
         private AmbientLight ambientLight= new AmbientLight();
         private Geometries geometries= new Geometries();
         public List<LightSource> lights=new LinkedList<>();
+        private HierarchyBuilder hierarchyBuilder = null;
 
         public SceneBuilder(String name){
             this.name=name;
@@ -125,6 +129,18 @@ public class Scene {
             return this;
         }
 
+        /**
+         * setter for the way the bounding volume hierarchy over the geometries is built -
+         * a fast build for scenes that are rebuilt for every frame, or a better tree for a still scene
+         * (if it isn't set, the geometries keep their own setting)
+         * @param hierarchyBuilder the way the hierarchy is built
+         * @return this scene
+         */
+        public SceneBuilder setHierarchyBuilder(HierarchyBuilder hierarchyBuilder) {
+            this.hierarchyBuilder = hierarchyBuilder;
+            return this;
+        }
+
         public  Scene build(){
             Scene scene= new Scene(this);
             return scene;
@@ -49,4 +49,238 @@ class GeometriesTest {
                         new Vector(-1.12,-1.84,0.28))).size(),
                 "The findIntersections did`nt work currently when the ray intersect all shapes");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Geometries#findIntersections(Ray)} (Ray)} with many geometries
+     * (the search goes through the bounding volume hierarchy).
+     */
+    @Test
+    void testFindIntersectionsManyGeometries() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            geometries.add(new Sphere(new Point(3 * i, 0, 0), 1));
+        geometries.add(new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray goes along the row of spheres and through the plane
+        assertEquals(201, geometries.findIntersections(new Ray(new Point(-5, 0, 0.5),
+                        new Vector(1, 0, -0.001))).size(),
+                "The findIntersections didn`t find all the spheres along the ray");
+
+        // TC02: The ray passes through a single sphere only
+        assertEquals(3, geometries.findIntersections(new Ray(new Point(150, 0, 10),
+                        new Vector(0, 0, -1))).size(),
+                "The findIntersections didn`t work currently when the ray intersect one sphere and the plane");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray passes between the spheres and misses the plane
+        assertNull(geometries.findIntersections(new Ray(new Point(1.5, 0, 10), new Vector(0, 0, 1))),
+                "The findIntersections didn`t return NULL when the ray misses all the geometries");
+
+        // TC12: Geometries added after a search are found as well
+        geometries.add(new Sphere(new Point(1.5, 0, 20), 1));
+        assertEquals(2, geometries.findIntersections(new Ray(new Point(1.5, 0, 10), new Vector(0, 0, 1))).size(),
+                "The findIntersections didn`t find a geometry added after the first search");
+    }
+
+    /**
+     * Test method for {@link Geometries#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, 5), 1).setMaterial(new Material().setKt(0.5)),
+                new Sphere(new Point(0, 0, 10), 1).setMaterial(new Material().setKt(0.5)),
+                new Sphere(new Point(0, 0, 20), 1));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes through two transparent spheres (four hits)
+        assertEquals(new Double3(0.0625), geometries.findTransparency(ray, 15, 0.001),
+                "Wrong transparency through transparent spheres");
+
+        // TC02: The ray is blocked by an opaque sphere
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 25, 0.001),
+                "The opaque sphere didn't block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Nothing between the start of the ray and the maximum distance
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 3, 0.001),
+                "Wrong transparency when there is no hit");
+
+        // TC12: A fully transparent geometry doesn't change the transparency
+        Geometries clear = new Geometries(new Sphere(new Point(0, 0, 5), 1).setMaterial(new Material().setKt(1)));
+        assertEquals(Double3.ONE, clear.findTransparency(ray, 15, 0.001),
+                "A fully transparent geometry changed the transparency");
+    }
+
+    /**
+     * Test method for {@link Geometries#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Sphere near = new Sphere(new Point(0, 0, 5), 1);
+        Geometries geometries = new Geometries();
+        for (int i = 10; i > 1; --i)
+            geometries.add(new Sphere(new Point(0, 0, 5 * i), 1));
+        geometries.add(near, new Plane(new Point(0, 0, 100), new Vector(0, 0, 1)));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest of many intersections
+        Intersectable.GeoPoint closest = geometries.findClosestGeoIntersection(ray);
+        assertEquals(near, closest.geometry, "Wrong closest geometry");
+        assertEquals(new Point(0, 0, 4), closest.point, "Wrong closest point");
+
+        // TC02: The ray misses all the geometries
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(3, 0, 0), new Vector(1, 0, 0))),
+                "There is no intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The closest point is farther than the maximum distance
+        assertNull(geometries.findClosestGeoIntersection(ray, 3.5),
+                "The closest point is farther than the maximum distance");
+    }
+
+    /**
+     * Test method for {@link Geometries#getHierarchyStatistics()}.
+     */
+    @Test
+    void testGetHierarchyStatistics() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add(new Sphere(new Point(3 * i, 3 * j, 0), 1));
+        geometries.add(new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The tree is a full binary tree over the bounded geometries
+        HierarchyStatistics statistics = geometries.getHierarchyStatistics();
+        assertEquals(100, statistics.getObjectCount(), "Wrong number of bounded geometries");
+        assertEquals(2 * statistics.getLeafCount() - 1, statistics.getNodeCount(), "The tree is not a full binary tree");
+        assertTrue(statistics.getLeafCount() >= 25, "A leaf holds too many geometries");
+
+        // TC02: The split tree is cheaper than checking all the geometries
+        assertTrue(statistics.getTraversalCost() > 0 && statistics.getTraversalCost() < 100,
+                "Wrong traversal cost");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Geometries without bounded geometries have an empty tree
+        assertEquals(0, new Geometries(new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)))
+                .getHierarchyStatistics().getNodeCount(), "The tree of unbounded geometries is not empty");
+    }
+
+    /**
+     * Test method for {@link Geometries#setHierarchyBuilder(HierarchyBuilder)}.
+     */
+    @Test
+    void testSetHierarchyBuilder() {
+        Geometries sah = new Geometries();
+        Geometries linear = new Geometries().setHierarchyBuilder(HierarchyBuilder.LINEAR);
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                for (int k = 0; k < 10; ++k) {
+                    Sphere sphere = new Sphere(new Point(3 * i, 3 * j, 3 * k), 1);
+                    sah.add(sphere);
+                    linear.add(sphere);
+                }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Both trees find the same closest geometry
+        for (int i = 0; i < 10; ++i) {
+            Ray ray = new Ray(new Point(-10, 0.3 * i, 1.7 * i), new Vector(1, 0.1 * i, 0.05));
+            Intersectable.GeoPoint expected = sah.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint result = linear.findClosestGeoIntersection(ray);
+            assertEquals(expected == null ? null : expected.geometry, result == null ? null : result.geometry,
+                    "The linear tree found a different closest geometry");
+        }
+
+        // TC02: Both trees find all the intersections
+        Ray ray = new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0));
+        assertEquals(20, linear.findIntersections(ray).size(), "The linear tree missed intersections");
+
+        // TC03: The linear tree is a full binary tree with a geometry in every leaf
+        HierarchyStatistics statistics = linear.getHierarchyStatistics();
+        assertEquals(1000, statistics.getLeafCount(), "Wrong number of leaves");
+        assertEquals(1999, statistics.getNodeCount(), "The tree is not a full binary tree");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Geometries with the same center are split as well
+        Geometries same = new Geometries().setHierarchyBuilder(HierarchyBuilder.LINEAR);
+        for (int i = 1; i <= 5; ++i)
+            same.add(new Sphere(new Point(0, 0, 0), i));
+        assertEquals(10, same.findIntersections(new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0))).size(),
+                "The linear tree missed geometries with the same center");
+    }
+
+    /**
+     * Test method for {@link Geometries#refit()}.
+     */
+    @Test
+    void testRefit() {
+        Sphere[] spheres = new Sphere[100];
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            geometries.add(spheres[i] = new Sphere(new Point(3 * i, 0, 0), 1));
+        Triangle triangle = new Triangle(new Point(0, 10, -1), new Point(2, 10, -1), new Point(0, 10, 1));
+        geometries.add(triangle);
+        Ray ray = new Ray(new Point(150, 0, 10), new Vector(0, 0, -1));
+        assertEquals(2, geometries.findIntersections(ray).size(), "Wrong intersections before the move");
+        int nodeCount = geometries.getHierarchyStatistics().getNodeCount();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A moved sphere is found in its new place and not in its old place
+        spheres[50].setCenter(new Point(1.5, 0, 5));
+        spheres[10].setCenter(new Point(150, 0, 0));
+        geometries.refit();
+        assertEquals(new Point(1.5, 0, 6), geometries.findClosestGeoIntersection(
+                new Ray(new Point(1.5, 0, 10), new Vector(0, 0, -1))).point, "The moved sphere wasn't found");
+        assertEquals(spheres[10], geometries.findClosestGeoIntersection(ray).geometry,
+                "The sphere moved to an empty place wasn't found");
+        assertEquals(nodeCount, geometries.getHierarchyStatistics().getNodeCount(), "The refit changed the tree");
+
+        // TC02: A moved triangle is found in its new place
+        triangle.setVertices(new Point(0, 50, -1), new Point(2, 50, -1), new Point(0, 50, 1));
+        geometries.refit();
+        assertNull(geometries.findGeoIntersections(new Ray(new Point(0.5, 5, 0), new Vector(0, 1, 0)), 20),
+                "The triangle was found in its old place");
+        assertEquals(1, geometries.findIntersections(new Ray(new Point(0.5, 5, 0), new Vector(0, 1, 0))).size(),
+                "The moved triangle wasn't found");
+
+        // TC03: Mixing the places of all the spheres makes the tree too slow, so it is built again
+        Geometries mixed = new Geometries(spheres);
+        mixed.getHierarchyStatistics();
+        for (int i = 0; i < 100; ++i)
+            spheres[i].setCenter(new Point(3 * ((i * 37) % 100), 0, 0));
+        mixed.refit();
+        assertEquals(new Geometries(spheres).getHierarchyStatistics().getTraversalCost(),
+                mixed.getHierarchyStatistics().getTraversalCost(), 1e-9, "The slow tree wasn't built again");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A rebuild threshold lower than 1
+        assertThrows(IllegalArgumentException.class, () -> geometries.setRebuildThreshold(0.5),
+                "Set a rebuild threshold lower than 1");
+    }
+
+    /**
+     * Test method for {@link Geometries#getIntersectables()}.
+     */
+    @Test
+    void testGetIntersectables() {
+        Geometries nested = new Geometries(new Sphere(new Point(0, 0, 5), 1));
+        Geometries geometries = new Geometries(nested);
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+        assertEquals(2, geometries.findIntersections(ray).size(), "Wrong number of points");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The list can't be changed behind the back of the hierarchy
+        assertThrows(UnsupportedOperationException.class,
+                () -> geometries.getIntersectables().add(new Sphere(new Point(0, 0, 10), 1)),
+                "The list of the geometries was changed directly");
+
+        // TC02: A geometry added to a nested group is found after the outer group is refitted
+        nested.add(new Sphere(new Point(0, 0, 20), 1));
+        geometries.refit();
+        assertEquals(4, geometries.findIntersections(ray).size(), "The geometry of the nested group wasn't found");
+    }
+}
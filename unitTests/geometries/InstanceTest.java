@@ -0,0 +1,111 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.Instance class
+ * @author Michal Superfine & Michal Evgi
+ */
+class InstanceTest {
+    Sphere sphere = new Sphere(new Point(0, 0, 0), 1);
+    Geometries shared = new Geometries(sphere);
+
+    /**
+     * Test method for {@link Instance#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Instance instance = new Instance(shared,
+                Transform.scaling(2, 2, 2).then(Transform.translation(new Vector(10, 0, 0))));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes through the moved and scaled sphere
+        var result = instance.findGeoIntersections(ray);
+        assertEquals(2, result.size(), "Wrong number of points");
+        Intersectable.GeoPoint gp = result.get(0).t < result.get(1).t ? result.get(0) : result.get(1);
+        assertEquals(new Point(8, 0, 0), gp.point, "Wrong point in the scene");
+        assertEquals(8, gp.t, 1e-10, "Wrong distance in the scene");
+        assertEquals(new Vector(-1, 0, 0), gp.getNormal(), "Wrong normal in the scene");
+        assertEquals(sphere, gp.geometry, "Wrong geometry");
+
+        // TC02: The ray misses the box of the instance
+        assertNull(instance.findGeoIntersections(new Ray(new Point(0, 5, 0), new Vector(1, 0, 0))),
+                "The ray doesn't pass through the instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The maximum distance is between the two points
+        assertEquals(1, instance.findGeoIntersections(ray, 10).size(), "Wrong number of points in the range");
+    }
+
+    /**
+     * Test method for {@link Instance#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normal of a stretched sphere is orthogonal to the stretched surface
+        Instance stretched = new Instance(shared, Transform.scaling(1, 4, 1));
+        double half = Math.sqrt(0.5);
+        // the point (half, half, 0) of the sphere is stretched to (half, 4 * half, 0), its normal to (4, 1, 0)
+        Ray ray = new Ray(new Point(half + 20, 4 * half + 5, 0), new Vector(-4, -1, 0));
+        Intersectable.GeoPoint gp = stretched.findClosestGeoIntersection(ray);
+        assertEquals(new Point(half, 4 * half, 0), gp.point, "Wrong point on the stretched sphere");
+        assertEquals(new Vector(4, 1, 0).normalize(), gp.getNormal(), "Wrong normal of the stretched sphere");
+
+        // TC02: Many instances of the same objects under a top level hierarchy
+        Geometries scene = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            scene.add(new Instance(shared, Transform.translation(new Vector(0, 0, 3 * i + 3))));
+        Ray along = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+        assertEquals(new Point(0, 0, 2), scene.findClosestGeoIntersection(along).point, "Wrong closest instance");
+        assertEquals(200, scene.findGeoIntersections(along).size(), "Wrong number of points of the instances");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A moved instance is found in its new place after a refit
+        Instance moved = new Instance(shared, Transform.IDENTITY);
+        scene.add(moved);
+        scene.findGeoIntersections(along);
+        moved.setTransform(Transform.translation(new Vector(0, 0, -10)));
+        scene.refit();
+        assertEquals(new Point(0, 0, -9), scene.findClosestGeoIntersection(
+                new Ray(new Point(0, 0, 0), new Vector(0, 0, -1))).point, "The moved instance wasn't found");
+
+        // TC12: A sphere moved in objects shared by many instances is found in all of them after a refit
+        Sphere inner = new Sphere(new Point(0, 0, 0), 1);
+        Geometries objects = new Geometries(inner, new Sphere(new Point(0, 5, 0), 1));
+        Geometries instances = new Geometries();
+        for (int i = 0; i < 3; ++i)
+            instances.add(new Instance(objects, Transform.translation(new Vector(10 * i + 10, 0, 0))));
+        instances.findGeoIntersections(along);
+        inner.setCenter(new Point(0, 0, 5));
+        instances.refit();
+        for (int i = 0; i < 3; ++i)
+            assertEquals(new Point(10 * i + 10, 0, 4), instances.findClosestGeoIntersection(
+                    new Ray(new Point(10 * i + 10, 0, 0), new Vector(0, 0, 1))).point, "The moved sphere wasn't found");
+    }
+
+    /**
+     * Test method for {@link Instance#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries glass = new Geometries(new Sphere(new Point(0, 0, 0), 1).setMaterial(new Material().setKt(0.5)));
+        Geometries scene = new Geometries(
+                new Instance(glass, Transform.translation(new Vector(0, 0, 5))),
+                new Instance(glass, Transform.rotation(new Vector(1, 0, 0), 90)
+                        .then(Transform.translation(new Vector(0, 0, 10)))));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes through two instances of a transparent sphere
+        assertEquals(new Double3(0.0625), scene.findTransparency(ray, 20, 0.001), "Wrong transparency");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The range ends inside the first instance
+        assertEquals(new Double3(0.5), scene.findTransparency(ray, 5, 0.001), "Wrong transparency in the range");
+    }
+}
@@ -135,4 +135,23 @@ class SphereTest {
         assertNull(sphere.findIntersections(ray), "Ray outside orthogonal to sphere center line BVA doesn't work.");
 
     }
+
+    /**
+     * Test method for {@link Sphere#findGeoIntersections(Ray)} (Ray)} - the distance from the start of the ray.
+     */
+    @Test
+    void testFindGeoIntersectionsDistance() {
+        Sphere sphere = new Sphere(new Point(-3, 0, 0), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray intersects the sphere twice - each point carries its distance
+        Ray ray = new Ray(new Point(3, 0, 0), new Vector(-1, 0, 0));
+        for (Intersectable.GeoPoint gp : sphere.findGeoIntersections(ray))
+            assertEquals(gp.point.distance(ray.getP0()), gp.t, 0.00001, "Wrong distance of the intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starts at the center
+        ray = new Ray(new Point(-3, 0, 0), new Vector(0, 0, 1));
+        assertEquals(1, sphere.findGeoIntersections(ray).get(0).t, 0.00001, "Wrong distance from the center");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ * @author Michal Superfine & Michal Evgi
+ */
+class TriangleMeshTest {
+    /**
+     * create a grid of size x size squares on a plane parallel to xy, each square made of two triangles
+     * @param size the number of squares on each side
+     * @param z the height of the grid
+     * @return the mesh
+     */
+    private static TriangleMesh createGrid(int size, double z) {
+        double[] vertices = new double[3 * (size + 1) * (size + 1)];
+        for (int j = 0; j <= size; ++j)
+            for (int i = 0; i <= size; ++i) {
+                int vertex = 3 * (j * (size + 1) + i);
+                vertices[vertex] = i;
+                vertices[vertex + 1] = j;
+                vertices[vertex + 2] = z;
+            }
+        int[] indices = new int[6 * size * size];
+        int index = 0;
+        for (int j = 0; j < size; ++j)
+            for (int i = 0; i < size; ++i) {
+                int v = j * (size + 1) + i;
+                indices[index++] = v;
+                indices[index++] = v + 1;
+                indices[index++] = v + size + 2;
+                indices[index++] = v;
+                indices[index++] = v + size + 2;
+                indices[index++] = v + size + 1;
+            }
+        return new TriangleMesh(vertices, indices);
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertDoesNotThrow(() -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2}),
+                "Failed constructing a correct mesh");
+
+        // TC02: A triangle refers to a missing vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Constructed a mesh with a missing vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The index buffer is not made of triads
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1}),
+                "Constructed a mesh with a broken index buffer");
+
+        // TC12: No triangles
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0}, new int[0]),
+                "Constructed an empty mesh");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        TriangleMesh mesh = createGrid(20, 0);
+        assertEquals(800, mesh.getTriangleCount(), "Wrong number of triangles");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses one triangle of the mesh
+        Ray ray = new Ray(new Point(7.7, 3.2, 5), new Vector(0, 0, -1));
+        List<Intersectable.GeoPoint> result = mesh.findGeoIntersections(ray);
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(7.7, 3.2, 0), result.get(0).point, "Wrong intersection point");
+        assertEquals(new Vector(0, 0, 1), result.get(0).getNormal(), "Wrong normal of the mesh");
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(7.7, 3.2, 0)), "Wrong normal of the mesh");
+
+        // TC02: Ray passes outside the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(25, 3, 5), new Vector(0, 0, -1))),
+                "Ray outside the mesh");
+
+        // TC03: Ray crosses the mesh diagonally through a few squares - one point
+        ray = new Ray(new Point(2.3, 2.1, 5), new Vector(1, 1.5, -1));
+        result = mesh.findGeoIntersections(ray);
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(7.3, 9.6, 0), result.get(0).point, "Wrong intersection point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray crosses an edge shared by two triangles
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(3.5, 3.5, 5), new Vector(0, 0, -1))),
+                "Ray through an edge of the mesh");
+
+        // TC12: Ray is parallel to the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(3.3, 3.6, 1), new Vector(1, 0, 0))),
+                "Ray parallel to the mesh");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        TriangleMesh lower = createGrid(10, 0);
+        TriangleMesh upper = createGrid(10, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the mesh
+        Ray ray = new Ray(new Point(4.2, 6.3, 5), new Vector(0, 0, -1));
+        Intersectable.GeoPoint closest = lower.findClosestGeoIntersection(ray);
+        assertEquals(new Point(4.2, 6.3, 0), closest.point, "Wrong closest point");
+        assertEquals(5, closest.t, 0.00001, "Wrong distance of the closest point");
+
+        // TC02: Two meshes - the upper one is closer
+        Geometries geometries = new Geometries(lower, upper);
+        closest = geometries.findClosestGeoIntersection(ray);
+        assertEquals(new Point(4.2, 6.3, 2), closest.point, "Wrong closest point");
+        assertEquals(2, geometries.findGeoIntersections(ray).size(), "Wrong number of points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The closest point is out of the range
+        assertNull(lower.findClosestGeoIntersection(ray, 4), "Point out of range");
+
+        // TC12: A tiny triangle has the normal of its plane
+        TriangleMesh tiny = new TriangleMesh(new double[]{0, 0, 0, 5e-7, 0, 0, 0, 5e-7, 0}, new int[]{0, 1, 2});
+        closest = tiny.findClosestGeoIntersection(new Ray(new Point(1e-7, 1e-7, 1), new Vector(0, 0, -1)));
+        assertEquals(new Vector(0, 0, 1), closest.getNormal(), "Wrong normal of a tiny triangle");
+        assertEquals(new Vector(0, 0, 1), tiny.getNormal(closest.point), "Wrong normal of a point on a tiny triangle");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Ray ray = new Ray(new Point(4.2, 6.3, 5), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes through two partly transparent meshes
+        Material glass = new Material().setKt(0.5);
+        Geometries geometries = new Geometries(createGrid(10, 0).setMaterial(glass), createGrid(10, 2).setMaterial(glass));
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 10, 0.001), "Wrong transparency");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: An opaque mesh blocks the ray
+        assertEquals(Double3.ZERO, createGrid(10, 0).findTransparency(ray, 10, 0.001), "An opaque mesh didn't block");
+
+        // TC12: A fully transparent mesh doesn't change the ray
+        assertEquals(Double3.ONE, createGrid(10, 0).setMaterial(new Material().setKt(1))
+                .findTransparency(ray, 10, 0.001), "A fully transparent mesh changed the ray");
+    }
+}
@@ -49,6 +49,11 @@ class TriangleTest {
         assertNull(triangle.findIntersections(new Ray(new Point(2,0,0),
                 new Vector(-1,0,0))),"Ray from outside of triangle against vertex. EP doesn't work.");
 
+        //TC04: the ray crosses a tiny triangle almost along its plane
+        Triangle tiny = new Triangle(new Point(0, 0, 0), new Point(1e-5, 0, 0), new Point(0, 1e-5, 0));
+        assertEquals(1, tiny.findIntersections(new Ray(new Point(3e-6 - 1, 3e-6, 0.005),
+                new Vector(1, 0, -0.005))).size(), "Ray through a tiny triangle. EP doesn't work.");
+
         // =============== Boundary Values Tests ==================
         //TC11: the ray begins on edge
         assertNull(triangle.findIntersections(new Ray(new Point(0.5,0,0),
@@ -62,5 +67,26 @@ class TriangleTest {
         assertNull(triangle.findIntersections(new Ray(new Point(0,2,0),
                 new Vector(0,-1,0))),"Ray begins on edge's continuation against outside. BVA doesn't work.");
 
+        //TC14: the ray is parallel to a tiny triangle
+        assertNull(tiny.findIntersections(new Ray(new Point(-1, 3e-6, 1e-9),
+                new Vector(1, 0, 0))),"Ray parallel to a tiny triangle. BVA doesn't work.");
+
+    }
+
+    /**
+     * Test method for {@link Triangle#findGeoIntersections(Ray)} (Ray)} - the barycentric coordinates.
+     */
+    @Test
+    void testFindGeoIntersectionsBarycentric() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 2, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray hits inside the triangle - the point is a + u*(b - a) + v*(c - a)
+        List<Intersectable.GeoPoint> result = triangle.findGeoIntersections(
+                new Ray(new Point(1, 1, 2), new Vector(0, 0, -1)));
+        assertEquals(1, result.size(), "Wrong number of intersections");
+        assertEquals(0.25, result.get(0).u, 0.00001, "Wrong u coordinate");
+        assertEquals(0.5, result.get(0).v, 0.00001, "Wrong v coordinate");
+        assertEquals(2, result.get(0).t, 0.00001, "Wrong distance");
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Color class
+ * @author Michal Superfine & Michal Evgi
+ */
+class ColorTest {
+    Color color = new Color(100, 150, 200);
+
+    /**
+     * Test method for {@link Color#isClose(double, Color...)}.
+     */
+    @Test
+    void testIsClose() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the colors are within the tolerance
+        assertTrue(color.isClose(2, new Color(101, 149, 202), new Color(99, 151, 198)), "Close colors are not close");
+
+        // TC02: One component of one color is out of the tolerance
+        assertFalse(color.isClose(2, new Color(101, 149, 202), new Color(100, 150, 203)), "Far colors are close");
+
+        // TC03: Components above 255 are compared as they look in the image
+        assertTrue(new Color(300, 0, 0).isClose(0, new Color(1000, 0, 0), new Color(255, 0, 0)),
+                "Colors above 255 are not close");
+        assertFalse(new Color(300, 0, 0).isClose(1, new Color(250, 0, 0)), "A color above 255 is close to a dim color");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The difference is exactly the tolerance
+        assertTrue(color.isClose(1, new Color(101, 149, 201)), "A color at the tolerance is not close");
+
+        // TC12: Zero tolerance
+        assertTrue(color.isClose(0, new Color(100, 150, 200)), "An equal color is not close");
+        assertFalse(color.isClose(0, new Color(100, 150, 200.5)), "A different color is close with zero tolerance");
+
+        // TC13: No other colors
+        assertTrue(color.isClose(0), "A color is not close to no colors");
+    }
+}
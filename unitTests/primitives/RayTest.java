@@ -47,4 +47,52 @@ class RayTest {
 
         assertEquals(list.get(list.size() - 1), ray.findClosestPoint(list),"try again");
     }
+
+    /**
+     * Test method for {@link Ray#isIntersectingBox(double, double, double, double, double, double, double)}.
+     */
+    @Test
+    void testIsIntersectingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes through the box
+        assertTrue(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 0.1, 0))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, Double.POSITIVE_INFINITY),
+                "The ray passes through the box");
+
+        // TC02: The ray misses the box
+        assertFalse(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 1, 0))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, Double.POSITIVE_INFINITY),
+                "The ray misses the box");
+
+        // TC03: The box is behind the ray
+        assertFalse(new Ray(new Point(-5, 0.5, 0.5), new Vector(-1, 0, 0))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, Double.POSITIVE_INFINITY),
+                "The box is behind the ray");
+
+        // TC04: The box is farther than the maximum distance
+        assertFalse(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 0, 0))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, 4),
+                "The box is farther than the maximum distance");
+
+        // TC05: The ray starts inside the box
+        assertTrue(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 2, 3))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, Double.POSITIVE_INFINITY),
+                "The ray starts inside the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray is parallel to a face of the box, outside of it
+        assertFalse(new Ray(new Point(-5, 2, 0.5), new Vector(1, 0, 0))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, Double.POSITIVE_INFINITY),
+                "The ray is parallel to the box outside of it");
+
+        // TC12: The ray goes along a face of the box
+        assertTrue(new Ray(new Point(-5, 1, 0.5), new Vector(1, 0, 0))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 1, Double.POSITIVE_INFINITY),
+                "The ray goes along a face of the box");
+
+        // TC13: The box is flat (a polygon on an axis plane)
+        assertTrue(new Ray(new Point(0.5, 0.5, 5), new Vector(0, 0.01, -1))
+                        .isIntersectingBox(0, 0, 0, 1, 1, 0, Double.POSITIVE_INFINITY),
+                "The ray passes through a flat box");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Transform class
+ * @author Michal Superfine & Michal Evgi
+ */
+class TransformTest {
+    Transform transform = Transform.scaling(2, 1, 1)
+            .then(Transform.rotation(new Vector(0, 0, 1), 90))
+            .then(Transform.translation(new Vector(1, 2, 3)));
+
+    /**
+     * Test method for {@link Transform#transformPoint(Point)}.
+     */
+    @Test
+    void testTransformPoint() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Scaled, rotated and moved point
+        assertEquals(new Point(1, 4, 3), transform.transformPoint(new Point(1, 0, 0)), "Wrong transformed point");
+
+        // TC02: The inverse brings the point back
+        assertEquals(new Point(1, 0, 0), transform.inverseTransformPoint(new Point(1, 4, 3)), "Wrong inverse point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The identity leaves the point in its place
+        assertEquals(new Point(1, 2, 3), Transform.IDENTITY.transformPoint(new Point(1, 2, 3)), "Identity moved the point");
+    }
+
+    /**
+     * Test method for {@link Transform#transformVector(Vector)}.
+     */
+    @Test
+    void testTransformVector() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A direction is not moved by the translation
+        assertEquals(new Vector(0, 2, 0), transform.transformVector(new Vector(1, 0, 0)), "Wrong transformed vector");
+
+        // TC02: The normal stays orthogonal to the transformed surface
+        Vector surface = transform.transformVector(new Vector(1, -1, 0));
+        Vector normal = transform.transformNormal(new Vector(1, 1, 0));
+        assertEquals(0, surface.dotProduct(normal), 1e-10, "The normal is not orthogonal to the surface");
+        assertEquals(1, normal.length(), 1e-10, "The normal is not normalized");
+    }
+
+    /**
+     * Test method for {@link Transform#scaling(double, double, double)}.
+     */
+    @Test
+    void testScaling() {
+        // =============== Boundary Values Tests ==================
+        // TC11: A transformation that can't be inverted
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1),
+                "Created a transformation that can't be inverted");
+    }
+}
@@ -4,8 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import geometries.*;
+import lighting.PointLight;
 import renderer.Camera;
 import primitives.*;
+import scene.Scene;
 
 /**
  * Testing Camera Class
@@ -58,4 +61,73 @@ class CameraTest {
 
     }
 
+
+    /**
+     * Test method for
+     * {@link renderer.Camera#renderImage()}.
+     */
+    @Test
+    void testRenderImage() {
+        Scene scene = new Scene.SceneBuilder("Render scene").build();
+        scene.getGeometries().add(
+                new Sphere(new Point(0, 0, -50), 20).setEmission(new Color(20, 20, 80))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(30).setKt(0.4)),
+                new Plane(new Point(0, -20, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30))
+                        .setMaterial(new Material().setKd(0.5).setKr(0.3)));
+        scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(30, 50, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: The random samples of a pixel don't depend on the thread that renders it
+        FrameBuffer single = renderRandomImage(scene, 1);
+        FrameBuffer multi = renderRandomImage(scene, 4);
+        for (int i = 0; i < 16; ++i)
+            for (int j = 0; j < 16; ++j) {
+                assertEquals(single.getSampleCount(j, i), multi.getSampleCount(j, i), "Wrong number of samples");
+                assertEquals(single.getColor(j, i).toString(), multi.getColor(j, i).toString(),
+                        "The pixel changed with the number of threads");
+            }
+    }
+
+    /**
+     * Test method for
+     * {@link renderer.Camera#renderImage()} with adaptive super sampling.
+     */
+    @Test
+    void testRenderImageAdaptive() {
+        Scene scene = new Scene.SceneBuilder("Empty scene").build();
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(40, 40).setVPDistance(50)
+                .setAntiAliasing(true).setSS(true).setDepth(3)
+                .setImageWriter(new ImageWriter("renderAdaptive", 4, 4))
+                .setRayTracer(new RayTracerBasic(scene));
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: The pixels are divided down to the cells of their 8x8 grids, every cell is traced once
+        camera.setAdaptiveSampleBudget(64, 1000).renderImage();
+        assertEquals(16 * 64, camera.getRayCount(), "A sample of the grid was traced more than once");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: The corners of a pixel are close, only the corners are traced
+        camera.setAdaptiveSampleBudget(4, 1000).renderImage();
+        assertEquals(16 * 4, camera.getRayCount(), "Wrong number of rays of close corners");
+    }
+
+    /**
+     * render a small image of a scene with random anti-aliasing and Russian roulette
+     *
+     * @param scene   the scene
+     * @param threads the number of rendering threads
+     * @return the frame buffer of the image
+     */
+    private static FrameBuffer renderRandomImage(Scene scene, int threads) {
+        return new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(80, 80).setVPDistance(50)
+                .setAntiAliasing(true).setSS(true).setDepth(2)
+                .setRussianRoulette(0.5).setSeed(7)
+                .setMultithreading(threads).setTileSize(3)
+                .setImageWriter(new ImageWriter("renderThreads", 16, 16))
+                .setRayTracer(new RayTracerBasic(scene))
+                .renderImage()
+                .getFrameBuffer();
+    }
 }
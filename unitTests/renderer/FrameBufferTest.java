@@ -0,0 +1,52 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.FrameBuffer class
+ * @author Michal Superfine & Michal Evgi
+ */
+class FrameBufferTest {
+
+    /**
+     * Test method for {@link FrameBuffer#getColor(int, int)}.
+     */
+    @Test
+    void testGetColor() {
+        FrameBuffer frameBuffer = new FrameBuffer(4, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The color of a pixel is the average of its samples
+        frameBuffer.addSample(2, 1, new Color(100, 0, 50));
+        frameBuffer.addSample(2, 1, new Color(200, 30, 0));
+        assertEquals(2, frameBuffer.getSampleCount(2, 1), "Wrong number of samples");
+        assertEquals(new Color(150, 15, 25).toString(), frameBuffer.getColor(2, 1).toString(), "Wrong average color");
+
+        // TC02: The components are kept above 255 until the image is written
+        frameBuffer.addSample(3, 2, new Color(1000, 600, 300));
+        frameBuffer.addSample(3, 2, new Color(0, 0, 100));
+        assertEquals(new Color(500, 300, 200).toString(), frameBuffer.getColor(3, 2).toString(), "Wrong HDR color");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A pixel without samples is black
+        assertEquals(0, frameBuffer.getSampleCount(0, 0), "Wrong number of samples");
+        assertEquals(Color.BLACK.toString(), frameBuffer.getColor(0, 0).toString(), "Empty pixel is not black");
+
+        // TC12: Clearing removes the samples
+        frameBuffer.clear();
+        assertEquals(0, frameBuffer.getSampleCount(2, 1), "Samples left after clear");
+    }
+
+    /**
+     * Test method for {@link FrameBuffer#FrameBuffer(int, int)}.
+     */
+    @Test
+    void testConstructor() {
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty frame buffer
+        assertThrows(IllegalArgumentException.class, () -> new FrameBuffer(0, 5), "Constructed an empty frame buffer");
+    }
+}
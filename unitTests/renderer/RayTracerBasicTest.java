@@ -0,0 +1,97 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RayTracerBasic class
+ * @author Michal Superfine & Michal Evgi
+ */
+class RayTracerBasicTest {
+
+    /**
+     * Test method for {@link RayTracerBasic#traceRay(Ray, TraceContext)} with Russian roulette.
+     */
+    @Test
+    void testRussianRoulette() {
+        // a dim mirror that reflects the ray to a glowing sphere - the reflected ray has a weight of 0.2
+        Scene scene = new Scene.SceneBuilder("Roulette scene").build();
+        scene.getGeometries().add(
+                new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).setMaterial(new Material().setKr(0.2)),
+                new Sphere(new Point(5, 0, 5), 1).setEmission(new Color(100, 100, 100)));
+        Ray ray = new Ray(new Point(-5, 0, 5), new Vector(1, 0, -1));
+        int pixels = 10000;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The average color of the pixels with Russian roulette is the color without it
+        RenderSettings settings = new RenderSettings.RenderSettingsBuilder().setRouletteWeight(0.5).build();
+        RayTracerBasic tracer = new RayTracerBasic(scene, settings);
+        TraceContext context = new TraceContext(settings);
+        double sum = 0;
+        for (int pixel = 0; pixel < pixels; ++pixel)
+            sum += tracer.traceRay(ray, context.startPixel(pixel, 1)).getRed();
+        assertEquals(20, sum / pixels, 1, "Russian roulette changed the average color");
+        // the reflected ray survives in probability of 0.2 / 0.5
+        assertEquals(0.4, (double) context.getSecondaryRays() / pixels, 0.02, "Wrong number of surviving rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray with a weight above the roulette weight is always traced with its own weight
+        RenderSettings low = new RenderSettings.RenderSettingsBuilder().setRouletteWeight(0.1).build();
+        TraceContext lowContext = new TraceContext(low);
+        assertEquals(20, new RayTracerBasic(scene, low).traceRay(ray, lowContext.startPixel(0, 1)).getRed(), 1e-10,
+                "Wrong color of a ray above the roulette weight");
+        assertEquals(1, lowContext.getSecondaryRays(), "A ray above the roulette weight wasn't traced");
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#traceRays(Ray[], int, Color[], TraceContext)} with a secondary ray budget.
+     */
+    @Test
+    void testSecondaryRayBudget() {
+        // two glowing mirrors facing each other - every point of the path adds 10 to its color
+        Scene scene = new Scene.SceneBuilder("Budget scene").build();
+        Material mirror = new Material().setKr(1);
+        scene.getGeometries().add(
+                new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).setEmission(new Color(10, 10, 10)).setMaterial(mirror),
+                new Plane(new Point(0, 0, 10), new Vector(0, 0, 1)).setEmission(new Color(10, 10, 10)).setMaterial(mirror));
+        Ray ray = new Ray(new Point(0, 0, 5), new Vector(1, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The budget of the pixel is split between its samples, the first samples get the remainder
+        RenderSettings settings = new RenderSettings.RenderSettingsBuilder().setSecondaryRayBudget(6).build();
+        RayTracerBasic tracer = new RayTracerBasic(scene, settings);
+        TraceContext context = new TraceContext(settings);
+        Color[] colors = new Color[4];
+        tracer.traceRays(new Ray[]{ray, ray, ray, ray}, 4, colors, context.startPixel(0, 4));
+        assertEquals(6, context.getSecondaryRays(), "Wrong number of secondary rays of the pixel");
+        assertEquals(30, colors[0].getRed(), 1e-10, "Wrong share of the first sample");
+        assertEquals(30, colors[1].getRed(), 1e-10, "Wrong share of the second sample");
+        assertEquals(20, colors[2].getRed(), 1e-10, "Wrong share of the third sample");
+        assertEquals(20, colors[3].getRed(), 1e-10, "Wrong share of the fourth sample");
+
+        // TC02: A new pixel gets a new budget
+        tracer.traceRay(ray, context.startPixel(1, 1));
+        assertEquals(12, context.getSecondaryRays(), "The budget of the pixel wasn't renewed");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Without a budget the path ends at the maximal level
+        RenderSettings unlimited = new RenderSettings.RenderSettingsBuilder().build();
+        TraceContext unlimitedContext = new TraceContext(unlimited);
+        assertEquals(90, new RayTracerBasic(scene, unlimited).traceRay(ray, unlimitedContext.startPixel(0, 1)).getRed(),
+                1e-10, "Wrong color of an unlimited path");
+        assertEquals(8, unlimitedContext.getSecondaryRays(), "Wrong number of secondary rays of an unlimited path");
+
+        // TC12: A budget smaller than the number of samples - only the first sample traces a secondary ray
+        RenderSettings one = new RenderSettings.RenderSettingsBuilder().setSecondaryRayBudget(1).build();
+        TraceContext oneContext = new TraceContext(one);
+        new RayTracerBasic(scene, one).traceRays(new Ray[]{ray, ray, ray, ray}, 4, colors, oneContext.startPixel(0, 4));
+        assertEquals(1, oneContext.getSecondaryRays(), "Wrong number of secondary rays of the pixel");
+        assertEquals(20, colors[0].getRed(), 1e-10, "Wrong share of the first sample");
+        assertEquals(10, colors[3].getRed(), 1e-10, "Wrong share of the last sample");
+    }
+}
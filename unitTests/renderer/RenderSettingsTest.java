@@ -0,0 +1,52 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RenderSettings class
+ * @author Michal Superfine & Michal Evgi
+ */
+class RenderSettingsTest {
+
+    /**
+     * Test method for {@link RenderSettings.RenderSettingsBuilder#build()}.
+     */
+    @Test
+    void testBuild() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct settings
+        RenderSettings settings = new RenderSettings.RenderSettingsBuilder()
+                .setAdaptiveDepth(2).setLightSamplesPerSample(4).setRouletteWeight(0.5).setSecondaryRayBudget(10).build();
+        assertEquals(0.5, settings.getRouletteWeight(), "Wrong roulette weight");
+        assertEquals(10, settings.getSecondaryRayBudget(), "Wrong secondary ray budget");
+
+        // TC02: Negative adaptive depth
+        assertThrows(IllegalArgumentException.class,
+                () -> new RenderSettings.RenderSettingsBuilder().setAdaptiveDepth(-1).build(), "Negative adaptive depth");
+
+        // TC03: Negative number of light samples
+        assertThrows(IllegalArgumentException.class,
+                () -> new RenderSettings.RenderSettingsBuilder().setLightSamplesPerSample(-1).build(),
+                "Negative number of light samples");
+
+        // TC04: Negative roulette weight
+        assertThrows(IllegalArgumentException.class,
+                () -> new RenderSettings.RenderSettingsBuilder().setRouletteWeight(-0.5).build(), "Negative roulette weight");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No adaptive division, no light samples and no Russian roulette
+        assertDoesNotThrow(() -> new RenderSettings.RenderSettingsBuilder()
+                .setAdaptiveDepth(0).setLightSamplesPerSample(0).setRouletteWeight(0).setSecondaryRayBudget(1).build(),
+                "Wrong limits of the settings");
+
+        // TC12: Roulette weight of 1
+        assertThrows(IllegalArgumentException.class,
+                () -> new RenderSettings.RenderSettingsBuilder().setRouletteWeight(1).build(), "Roulette weight of 1");
+
+        // TC13: Budget of zero secondary rays
+        assertThrows(IllegalArgumentException.class,
+                () -> new RenderSettings.RenderSettingsBuilder().setSecondaryRayBudget(0).build(), "Budget of zero");
+    }
+}
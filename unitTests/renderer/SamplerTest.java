@@ -0,0 +1,95 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.Sampler implementations
+ * @author Michal Superfine & Michal Evgi
+ */
+class SamplerTest {
+    /**
+     * check that a set of samples has exactly one sample in every cell of a grid
+     * @param sampler the sampler
+     * @param count the number of samples
+     * @param columns the number of columns of the grid
+     * @param rows the number of rows of the grid
+     * @param offsetU the offset of the first coordinate
+     * @param offsetV the offset of the second coordinate
+     * @param message the message of the failure
+     */
+    private static void assertStratified(Sampler sampler, int count, int columns, int rows,
+                                         double offsetU, double offsetV, String message) {
+        boolean[] taken = new boolean[columns * rows];
+        for (int i = 0; i < count; ++i) {
+            double u = sampler.getSample(i, count, 0, offsetU);
+            double v = sampler.getSample(i, count, 1, offsetV);
+            assertTrue(u >= 0 && u < 1 && v >= 0 && v < 1, message + " - sample out of the unit square");
+            int cell = (int) (v * rows) * columns + (int) (u * columns);
+            assertFalse(taken[cell], message + " - two samples in a cell");
+            taken[cell] = true;
+        }
+    }
+
+    /**
+     * Test method for {@link StratifiedSampler#getSample(int, int, int, double)}.
+     */
+    @Test
+    void testStratifiedSampler() {
+        Sampler sampler = new StratifiedSampler();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Square number of samples - one sample in every cell
+        assertStratified(sampler, 64, 8, 8, 0.3, 0.7, "Stratified square set");
+
+        // TC02: The sample is inside its cell
+        double u = sampler.getSample(10, 16, 0, 0.5), v = sampler.getSample(10, 16, 1, 0.5);
+        assertTrue(u >= 0.5 && u < 0.75 && v >= 0.5 && v < 0.75, "Sample out of its cell");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Number of samples that is not a square - the grid has a cell for every sample
+        assertStratified(sampler, 10, 5, 2, 0, 0, "Stratified set of 10 samples");
+        assertStratified(sampler, 12, 4, 3, 0.4, 0.9, "Stratified set of 12 samples");
+
+        // TC12: Prime number of samples - one row of cells
+        assertStratified(sampler, 3, 3, 1, 0, 0, "Stratified set of 3 samples");
+        assertStratified(sampler, 7, 7, 1, 0.5, 0.5, "Stratified set of 7 samples");
+    }
+
+    /**
+     * Test method for {@link HaltonSampler#getSample(int, int, int, double)}.
+     */
+    @Test
+    void testHaltonSampler() {
+        Sampler sampler = new HaltonSampler();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The radical inverses of 5 in bases 2 and 3
+        assertEquals(0.625, sampler.getSample(5, 16, 0, 0), 0.00001, "Wrong radical inverse in base 2");
+        assertEquals(7d / 9, sampler.getSample(5, 16, 1, 0), 0.00001, "Wrong radical inverse in base 3");
+
+        // TC02: 6 samples are stratified on a 2 x 3 grid
+        assertStratified(sampler, 6, 2, 3, 0, 0, "Halton set");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The offset wraps the sample into the unit square
+        assertEquals(0.125, sampler.getSample(5, 16, 0, 0.5), 0.00001, "Wrong wrapped sample");
+    }
+
+    /**
+     * Test method for {@link SobolSampler#getSample(int, int, int, double)}.
+     */
+    @Test
+    void testSobolSampler() {
+        Sampler sampler = new SobolSampler();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 16 samples have one sample in every elementary interval
+        assertStratified(sampler, 16, 4, 4, 0, 0, "Sobol set on 4 x 4");
+        assertStratified(sampler, 16, 16, 1, 0, 0, "Sobol set on 16 x 1");
+        assertStratified(sampler, 16, 2, 8, 0, 0, "Sobol set on 2 x 8");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The first sample is the corner
+        assertEquals(0, sampler.getSample(0, 16, 0, 0), 0.00001, "Wrong first sample");
+        assertEquals(0, sampler.getSample(0, 16, 1, 0), 0.00001, "Wrong first sample");
+    }
+}